@@ -0,0 +1,315 @@
+package com.yuantj.json.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates the codecs of the records annotated with
+ * {@code com.yuantj.json.JSONCodec}.
+ *
+ * The codec of a record {@code p.Outer.Point} is the class
+ * {@code p.Outer_Point_JSONCodec}, a {@code JSONBinding} reading the
+ * components from a {@code JSONReader} into local variables and calling the
+ * canonical constructor, and writing them through the accessors.  Integers
+ * and strings are read inline, integers are written inline, and values of
+ * other types go through the bindings of their types.  The processor is
+ * registered in {@code META-INF/services}, so that it runs when it is on the
+ * annotation processor path.
+ *
+ * @author yuantj
+ * @version 1.0
+ */
+@SupportedAnnotationTypes("com.yuantj.json.JSONCodec")
+public final class JSONCodecProcessor extends AbstractProcessor {
+    private static final String API = "com.yuantj.json.";
+
+    /**
+     * Constructs the processor, called by the compiler.
+     */
+    public JSONCodecProcessor() {
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element e : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (check(e)) {
+                    try {
+                        generate((TypeElement)e);
+                    } catch (IOException | IllegalArgumentException x) {
+                        error(e, "cannot generate the codec: " + x.getMessage());
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean check(Element e) {
+        if (e.getKind() != ElementKind.RECORD) {
+            return error(e, "@JSONCodec can only be applied to records");
+        }
+        if (!((TypeElement)e).getTypeParameters().isEmpty()) {
+            return error(e, "@JSONCodec cannot be applied to generic records");
+        }
+        for (Element t = e; t.getKind() != ElementKind.PACKAGE; t = t.getEnclosingElement()) {
+            if (t.getModifiers().contains(Modifier.PRIVATE)) {
+                return error(e, "@JSONCodec cannot be applied to private records");
+            }
+        }
+        for (RecordComponentElement c : ((TypeElement)e).getRecordComponents()) {
+            if (c.asType().getKind() == TypeKind.CHAR) {
+                return error(c, "cannot bind char components");
+            }
+        }
+        return true;
+    }
+
+    private boolean error(Element e, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, e);
+        return false;
+    }
+
+    private void generate(TypeElement record) throws IOException {
+        var elements = processingEnv.getElementUtils();
+        String packageName = elements.getPackageOf(record).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(record).toString();
+        String simpleName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1)
+                .replace('$', '_') + "_JSONCodec";
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        String recordName = record.getQualifiedName().toString();
+        List<? extends RecordComponentElement> components = record.getRecordComponents();
+
+        var file = processingEnv.getFiler().createSourceFile(qualifiedName, record);
+        try (var out = new PrintWriter(file.openWriter())) {
+            out.println("// Generated by com.yuantj.json.processor.JSONCodecProcessor from " + recordName + ".");
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+            }
+            out.println();
+            out.println("public final class " + simpleName + " implements " + API + "JSONBinding<" + recordName + "> {");
+            for (int i = 0; i < components.size(); ++i) {
+                TypeMirror type = components.get(i).asType();
+                String boxed = typeName(boxed(type));
+                if (type.getKind().isPrimitive() || boxed.equals("java.lang.String")) {
+                    out.println("    private static final " + API + "JSONBinding<" + boxed + "> B" + i + " = "
+                            + API + "JSON.bind(" + typeName(type) + ".class);");
+                } else {
+                    // Bindings of other types are resolved when they are first
+                    // used, so that records may refer to each other.
+                    String javaType = isGeneric(type)
+                            ? recordName + ".class.getRecordComponents()[" + i + "].getGenericType()"
+                            : "(java.lang.reflect.Type)" + typeName(type) + ".class";
+                    out.println("    @SuppressWarnings(\"unchecked\")");
+                    out.println("    private static final " + API + "JSONBinding<" + boxed + "> B" + i + " = (" + API
+                            + "JSONBinding<" + boxed + ">)" + API + "JSON.bind(" + javaType + ");");
+                }
+            }
+            out.println();
+            out.println("    @Override");
+            out.println("    public " + recordName + " read(" + API + "JSONReader reader) {");
+            out.println("        " + API + "JSONToken token = reader.currentToken();");
+            out.println("        if (token == " + API + "JSONToken.VALUE_NULL) {");
+            out.println("            return null;");
+            out.println("        }");
+            out.println("        if (token != " + API + "JSONToken.START_OBJECT) {");
+            out.println("            throw new " + API + "JSONTypeMismatchException(reader.readElement().getType(), "
+                    + API + "JSONType.OBJECT);");
+            out.println("        }");
+            for (int i = 0; i < components.size(); ++i) {
+                TypeMirror type = components.get(i).asType();
+                out.println("        " + typeName(type) + " v" + i + " = " + defaultValue(type) + ";");
+            }
+            out.println("        while (reader.nextToken() != " + API + "JSONToken.END_OBJECT) {");
+            out.println("            String name = reader.getStringValue();");
+            out.println("            token = reader.nextToken();");
+            out.println("            switch (name) {");
+            for (int i = 0; i < components.size(); ++i) {
+                RecordComponentElement c = components.get(i);
+                out.println("                case " + javaString(c.getSimpleName().toString()) + ":");
+                out.println("                    v" + i + " = " + readExpression(c.asType(), i) + ";");
+                out.println("                    break;");
+            }
+            out.println("                default:");
+            out.println("                    reader.skipChildren();");
+            out.println("                    break;");
+            out.println("            }");
+            out.println("        }");
+            var arguments = new StringJoiner(", ");
+            for (int i = 0; i < components.size(); ++i) {
+                arguments.add("v" + i);
+            }
+            out.println("        return new " + recordName + "(" + arguments + ");");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public void write(" + recordName + " value, Appendable appendable) throws java.io.IOException {");
+            out.println("        if (value == null) {");
+            out.println("            appendable.append(\"null\");");
+            out.println("            return;");
+            out.println("        }");
+            for (int i = 0; i < components.size(); ++i) {
+                RecordComponentElement c = components.get(i);
+                String name = c.getSimpleName().toString();
+                // Names are identifiers, which need no escaping in JSON.
+                out.println("        appendable.append(" + javaString((i == 0 ? "{\"" : ",\"") + name + "\":") + ");");
+                out.println("        " + writeStatement(c.asType(), "value." + name + "()", i));
+            }
+            out.println("        appendable.append(" + javaString(components.isEmpty() ? "{}" : "}") + ");");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private static String readExpression(TypeMirror type, int i) {
+        String b = "B" + i;
+        switch (type.getKind()) {
+            // Like the bindings, numbers which do not fit are rejected.
+            case INT:
+                return "token == " + API + "JSONToken.VALUE_NUMBER ? reader.getIntValueExact() : " + b + ".read(reader)";
+            case LONG:
+                return "token == " + API + "JSONToken.VALUE_NUMBER ? reader.getLongValueExact() : " + b + ".read(reader)";
+            case DECLARED:
+                if (typeName(type).equals("java.lang.String")) {
+                    return "token == " + API + "JSONToken.VALUE_STRING ? reader.getStringValue() : " + b + ".read(reader)";
+                }
+                return b + ".read(reader)";
+            default:
+                return b + ".read(reader)";
+        }
+    }
+
+    private static String writeStatement(TypeMirror type, String value, int i) {
+        switch (type.getKind()) {
+            case INT:
+            case LONG:
+            case SHORT:
+            case BYTE:
+            case BOOLEAN:
+                return "appendable.append(String.valueOf(" + value + "));";
+            default:
+                return "B" + i + ".write(" + value + ", appendable);";
+        }
+    }
+
+    private static String defaultValue(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "false";
+            case CHAR:
+                return "'\\0'";
+            case BYTE:
+            case SHORT:
+                return "(" + typeName(type) + ")0";
+            case INT:
+                return "0";
+            case LONG:
+                return "0L";
+            case FLOAT:
+                return "0.0f";
+            case DOUBLE:
+                return "0.0";
+            default:
+                return "null";
+        }
+    }
+
+    private TypeMirror boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType)type).asType();
+        }
+        return type;
+    }
+
+    // Returns true if the type has type arguments, so that its binding
+    // needs the generic type of the component.
+    private static boolean isGeneric(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isGeneric(((ArrayType)type).getComponentType());
+        }
+        return type.getKind() == TypeKind.DECLARED && !((DeclaredType)type).getTypeArguments().isEmpty();
+    }
+
+    // Returns the name of the type in source code, without the type
+    // annotations that TypeMirror.toString() may include.
+    private static String typeName(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case CHAR:
+            case FLOAT:
+            case DOUBLE:
+                return type.getKind().name().toLowerCase(Locale.ROOT);
+            case ARRAY:
+                return typeName(((ArrayType)type).getComponentType()) + "[]";
+            case DECLARED: {
+                var declared = (DeclaredType)type;
+                String name = ((TypeElement)declared.asElement()).getQualifiedName().toString();
+                if (declared.getTypeArguments().isEmpty()) {
+                    return name;
+                }
+                var arguments = new StringJoiner(", ", "<", ">");
+                for (TypeMirror argument : declared.getTypeArguments()) {
+                    arguments.add(typeName(argument));
+                }
+                return name + arguments;
+            }
+            case WILDCARD: {
+                var wildcard = (WildcardType)type;
+                if (wildcard.getExtendsBound() != null) {
+                    return "? extends " + typeName(wildcard.getExtendsBound());
+                } else if (wildcard.getSuperBound() != null) {
+                    return "? super " + typeName(wildcard.getSuperBound());
+                }
+                return "?";
+            }
+            default:
+                throw new IllegalArgumentException("unsupported type " + type);
+        }
+    }
+
+    // Returns a Java string literal, with non-ASCII characters escaped so
+    // that the source does not depend on the encoding of the filer.
+    private static String javaString(String s) {
+        var sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); ++i) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7E) {
+                sb.append(String.format("\\u%04x", (int)c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.yuantj.json;
+
+import java.nio.ByteBuffer;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// A ByteScanner classifying a whole vector of bytes at a time, loaded by
+// ByteScanner when the jdk.incubator.vector module is available.  Only
+// buffers backed by an array are scanned with vectors, other buffers and
+// the tail of a run are scanned by ByteScanner.Swar.
+final class VectorByteScanner extends ByteScanner {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int LENGTH = SPECIES.length();
+
+    private final ByteScanner swar = new Swar();
+
+    @Override
+    int skipWhitespace(ByteBuffer input, int from, int to) {
+        // Most runs of whitespace are empty or short.
+        if (from >= to || !JSONParser.isLatin1WhiteSpace((char)input.get(from))) {
+            return from;
+        }
+        if (!input.hasArray()) {
+            return swar.skipWhitespace(input, from, to);
+        }
+        byte[] a = input.array();
+        int offset = input.arrayOffset();
+        int i = from;
+        for (; i + LENGTH <= to; i += LENGTH) {
+            var v = ByteVector.fromArray(SPECIES, a, offset + i);
+            VectorMask<Byte> other = v.compare(VectorOperators.EQ, (byte)' ')
+                    .or(v.compare(VectorOperators.EQ, (byte)'\n'))
+                    .or(v.compare(VectorOperators.EQ, (byte)'\r'))
+                    .or(v.compare(VectorOperators.EQ, (byte)'\t'))
+                    .not();
+            if (other.anyTrue()) {
+                return i + other.firstTrue();
+            }
+        }
+        return swar.skipWhitespace(input, i, to);
+    }
+
+    @Override
+    int plainRunEnd(ByteBuffer input, int from, int to) {
+        if (!input.hasArray()) {
+            return swar.plainRunEnd(input, from, to);
+        }
+        byte[] a = input.array();
+        int offset = input.arrayOffset();
+        int i = from;
+        for (; i + LENGTH <= to; i += LENGTH) {
+            var v = ByteVector.fromArray(SPECIES, a, offset + i);
+            VectorMask<Byte> special = v.compare(VectorOperators.EQ, (byte)'"')
+                    .or(v.compare(VectorOperators.EQ, (byte)'\\'))
+                    .or(v.compare(VectorOperators.LT, (byte)0));
+            if (special.anyTrue()) {
+                return i + special.firstTrue();
+            }
+        }
+        return swar.plainRunEnd(input, i, to);
+    }
+}
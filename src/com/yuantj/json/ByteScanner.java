@@ -0,0 +1,147 @@
+package com.yuantj.json;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Finds the end of runs of bytes in UTF-8 input for Utf8JSONParser, so that
+// whitespace and the plain parts of strings are not read one byte at a time
+// through current() and advance().
+//
+// The implementation using the Vector API is in the src-vector source root,
+// which is compiled with --add-modules jdk.incubator.vector.  It is only
+// used if it is on the class path and the JVM is run with the same option,
+// and it can be disabled by setting the system property
+// com.yuantj.json.vector to false.  Otherwise Swar is used, which reads
+// the input a long at a time and classifies its 8 bytes with bit tricks.
+abstract class ByteScanner {
+    static final ByteScanner INSTANCE = load();
+
+    private static ByteScanner load() {
+        if (Boolean.parseBoolean(System.getProperty("com.yuantj.json.vector", "true"))
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (ByteScanner)Class.forName("com.yuantj.json.VectorByteScanner")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Not compiled in, or not supported by this JVM.
+            }
+        }
+        return new Swar();
+    }
+
+    // Returns the index of the first byte in [from, to) which is not
+    // whitespace, or to if there is none.
+    abstract int skipWhitespace(ByteBuffer input, int from, int to);
+
+    // Returns the index of the first '"', '\\' or non-ASCII byte in
+    // [from, to), or to if there is none.
+    abstract int plainRunEnd(ByteBuffer input, int from, int to);
+
+    static final class Swar extends ByteScanner {
+        // Words are read in little-endian order, so that the first byte of
+        // a word is its lowest byte whatever the platform.
+        private static final VarHandle ARRAY_LONGS =
+                MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+        private static final VarHandle BUFFER_LONGS =
+                MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+        private static final long ONES = 0x0101010101010101L;
+        private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+        private static final long HIGH_BITS = 0x8080808080808080L;
+
+        @Override
+        int skipWhitespace(ByteBuffer input, int from, int to) {
+            // Most runs of whitespace are empty or short.
+            int i = from;
+            if (i >= to || !JSONParser.isLatin1WhiteSpace((char)input.get(i))) {
+                return i;
+            }
+            if (input.hasArray()) {
+                byte[] a = input.array();
+                int offset = input.arrayOffset();
+                for (; i + Long.BYTES <= to; i += Long.BYTES) {
+                    long m = nonWhitespace((long)ARRAY_LONGS.get(a, offset + i));
+                    if (m != 0) {
+                        return i + firstByte(m);
+                    }
+                }
+            } else {
+                for (; i + Long.BYTES <= to; i += Long.BYTES) {
+                    long m = nonWhitespace((long)BUFFER_LONGS.get(input, i));
+                    if (m != 0) {
+                        return i + firstByte(m);
+                    }
+                }
+            }
+            while (i < to && JSONParser.isLatin1WhiteSpace((char)input.get(i))) {
+                ++i;
+            }
+            return i;
+        }
+
+        @Override
+        int plainRunEnd(ByteBuffer input, int from, int to) {
+            int i = from;
+            if (input.hasArray()) {
+                byte[] a = input.array();
+                int offset = input.arrayOffset();
+                for (; i + Long.BYTES <= to; i += Long.BYTES) {
+                    long m = special((long)ARRAY_LONGS.get(a, offset + i));
+                    if (m != 0) {
+                        return i + firstByte(m);
+                    }
+                }
+            } else {
+                for (; i + Long.BYTES <= to; i += Long.BYTES) {
+                    long m = special((long)BUFFER_LONGS.get(input, i));
+                    if (m != 0) {
+                        return i + firstByte(m);
+                    }
+                }
+            }
+            while (i < to) {
+                byte b = input.get(i);
+                if (b == '"' || b == '\\' || b < 0) {
+                    break;
+                }
+                ++i;
+            }
+            return i;
+        }
+
+        // Returns the high bit of each byte of the word which is not ' ',
+        // '\t', '\n' or '\r'.
+        private static long nonWhitespace(long x) {
+            long whitespace = zero(x ^ ' ' * ONES) | zero(x ^ '\t' * ONES)
+                    | zero(x ^ '\n' * ONES) | zero(x ^ '\r' * ONES);
+            return ~whitespace & HIGH_BITS;
+        }
+
+        // Returns a word whose lowest set bit is the high bit of the first
+        // byte of the word which is '"', '\\' or non-ASCII, or 0 if there is
+        // none.  Bits above it may be set spuriously.
+        private static long special(long x) {
+            return firstZero(x ^ '"' * ONES) | firstZero(x ^ '\\' * ONES) | x & HIGH_BITS;
+        }
+
+        // Returns the high bit of each zero byte of the word.
+        private static long zero(long x) {
+            return ~((x & LOW_BITS) + LOW_BITS | x | LOW_BITS);
+        }
+
+        // Returns a word whose lowest set bit is the high bit of the first
+        // zero byte of the word, like zero() but with fewer operations,
+        // because the bytes after the first zero one may be set by the
+        // borrow.
+        private static long firstZero(long x) {
+            return (x - ONES) & ~x & HIGH_BITS;
+        }
+
+        // Returns the index in the word of the byte of the lowest set bit.
+        private static int firstByte(long m) {
+            return Long.numberOfTrailingZeros(m) >>> 3;
+        }
+    }
+}
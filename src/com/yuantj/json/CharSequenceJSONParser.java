@@ -0,0 +1,41 @@
+package com.yuantj.json;
+
+import java.util.Objects;
+
+// Parses any CharSequence, such as a StringBuilder or a CharBuffer, without
+// converting it to a String first.  Strings are parsed by StringJSONParser.
+final class CharSequenceJSONParser extends JSONParser {
+    private int pos = 0;
+    private final int limit;
+    private final CharSequence input;
+
+    CharSequenceJSONParser(CharSequence input) {
+        this.input = Objects.requireNonNull(input);
+        this.limit = input.length();
+    }
+
+    @Override
+    char current() {
+        return input.charAt(pos);
+    }
+
+    @Override
+    void advance() {
+        pos++;
+    }
+
+    @Override
+    boolean hasInput() {
+        return pos < limit;
+    }
+
+    @Override
+    long position() {
+        return pos;
+    }
+
+    @Override
+    JSONParseException exception(String message) {
+        return exception(message, input, 0, pos, 0, 1, 0);
+    }
+}
@@ -1,10 +1,20 @@
 package com.yuantj.json;
 
 import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * An util class containing several methods dealing with JSON
@@ -28,6 +38,71 @@ public final class JSON {
         return new StringJSONParser(json).parse();
     }
 
+    public static JSONElement parse(byte[] utf8) {
+        return parse(utf8, 0, utf8.length);
+    }
+
+    public static JSONElement parse(byte[] utf8, int off, int len) {
+        Objects.checkFromIndexSize(off, len, utf8.length);
+        return new Utf8JSONParser(ByteBuffer.wrap(utf8, off, len)).parse();
+    }
+
+    public static <H extends JSONHandler> H parse(String json, H handler) {
+        Objects.requireNonNull(handler);
+        new StringJSONParser(json).parse(handler);
+        return handler;
+    }
+
+    public static <H extends JSONHandler> H parse(byte[] utf8, int off, int len, H handler) {
+        Objects.requireNonNull(handler);
+        Objects.checkFromIndexSize(off, len, utf8.length);
+        new Utf8JSONParser(ByteBuffer.wrap(utf8, off, len)).parse(handler);
+        return handler;
+    }
+
+    public static JSONElement parse(String json, JSONProjection projection) {
+        Objects.requireNonNull(projection);
+        return new StringJSONParser(json).parse(projection);
+    }
+
+    public static JSONElement parse(byte[] utf8, int off, int len, JSONProjection projection) {
+        Objects.requireNonNull(projection);
+        Objects.checkFromIndexSize(off, len, utf8.length);
+        return new Utf8JSONParser(ByteBuffer.wrap(utf8, off, len)).parse(projection);
+    }
+
+    public static JSONAccessor parseLazy(String json) {
+        return new LazyJSONAccessor(new JSONTape.OfString(json), 0);
+    }
+
+    public static JSONAccessor parseLazy(byte[] utf8) {
+        return parseLazy(utf8, 0, utf8.length);
+    }
+
+    public static JSONAccessor parseLazy(byte[] utf8, int off, int len) {
+        Objects.checkFromIndexSize(off, len, utf8.length);
+        return new LazyJSONAccessor(new JSONTape.OfBytes(ByteBuffer.wrap(utf8, off, len).slice()), 0);
+    }
+
+    public static JSONElement parseParallel(String json) {
+        return parseParallel(json, ForkJoinPool.commonPool());
+    }
+
+    public static JSONElement parseParallel(String json, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return new ParallelJSONParser.OfString(json, pool).parse();
+    }
+
+    public static JSONElement parseParallel(byte[] utf8, int off, int len) {
+        return parseParallel(utf8, off, len, ForkJoinPool.commonPool());
+    }
+
+    public static JSONElement parseParallel(byte[] utf8, int off, int len, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        Objects.checkFromIndexSize(off, len, utf8.length);
+        return new ParallelJSONParser.OfBytes(ByteBuffer.wrap(utf8, off, len).slice(), pool).parse();
+    }
+
     public static Object parseToRaw(String json) {
         return parse(json).toRawObject();
     }
@@ -44,6 +119,105 @@ public final class JSON {
         }
     }
 
+    public static <H extends JSONHandler> H load(Reader in, H handler) throws IOException {
+        Objects.requireNonNull(handler);
+        try {
+            new ReaderJSONParser(in).parse(handler);
+            return handler;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static JSONElement load(Reader in, JSONProjection projection) throws IOException {
+        Objects.requireNonNull(projection);
+        try {
+            return new ReaderJSONParser(in).parse(projection);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static JSONElement load(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedJSONParser(channel).parse();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static void validate(CharSequence json) {
+        if (json instanceof String) {
+            new StringJSONParser((String)json).validate();
+        } else {
+            new CharSequenceJSONParser(json).validate();
+        }
+    }
+
+    public static void validate(byte[] utf8) {
+        validate(utf8, 0, utf8.length);
+    }
+
+    public static void validate(byte[] utf8, int off, int len) {
+        Objects.checkFromIndexSize(off, len, utf8.length);
+        new Utf8JSONParser(ByteBuffer.wrap(utf8, off, len)).validate();
+    }
+
+    public static void validate(Reader in) throws IOException {
+        try {
+            new ReaderJSONParser(in).validate();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static JSONReader reader(String json) {
+        return new JSONReader(new StringJSONParser(json));
+    }
+
+    public static JSONReader reader(byte[] utf8) {
+        return reader(utf8, 0, utf8.length);
+    }
+
+    public static JSONReader reader(byte[] utf8, int off, int len) {
+        Objects.checkFromIndexSize(off, len, utf8.length);
+        return new JSONReader(new Utf8JSONParser(ByteBuffer.wrap(utf8, off, len)));
+    }
+
+    public static JSONReader reader(Reader in) {
+        return new JSONReader(new ReaderJSONParser(in));
+    }
+
+    public static <T> JSONBinding<T> bind(Class<T> type) {
+        Objects.requireNonNull(type);
+        return JSONBindings.of(type);
+    }
+
+    public static JSONBinding<?> bind(Type type) {
+        Objects.requireNonNull(type);
+        return JSONBindings.of(type);
+    }
+
+    public static JSONAsyncParser asyncParser(Consumer<? super JSONElement> consumer) {
+        return new JSONAsyncParser(consumer);
+    }
+
+    public static Stream<JSONElement> lines(InputStream in) {
+        Objects.requireNonNull(in);
+        return StreamSupport.stream(new JSONLineSpliterator(in), false);
+    }
+
+    public static Stream<JSONElement> lines(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        return lines(in).onClose(() -> {
+            try {
+                in.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
     public static Appendable append(JSONAccessor element, Appendable appendable) throws IOException {
         return element.toJSONElement().appendJSON(appendable, false);
     }
@@ -6,16 +6,42 @@ import java.util.*;
 /**
  * This class represents a JSON array.
  *
+ * Arrays of integers, of numbers created from {@code double}s and of
+ * booleans, such as the arrays returned by {@link #of(long[])}, are stored
+ * as primitive arrays, and their elements are only created when they are
+ * accessed.  Their values can be copied in bulk by {@link #toLongArray()}
+ * and {@link #toDoubleArray()}.
+ *
  * @author yuantj
  * @version 1.0
  */
 public final class JSONArray extends JSONElement {
-    final JSONElement[] values;
+    // Trusted arrays of numbers stored as longs or doubles at least this
+    // long are stored unboxed, shorter arrays are kept as they are.
+    private static final int UNBOXED_MIN_LENGTH = 16;
+
+    // Exactly one of these arrays holds the elements.
+    private final JSONElement[] values;
+    private final long[] longs;
+    private final double[] doubles;
+    private final boolean[] booleans;
+    private final int size;
 
-    private JSONArray(JSONElement[] values) {
+    private JSONArray(JSONElement[] values, long[] longs, double[] doubles, boolean[] booleans, int size) {
         super(JSONType.ARRAY);
-        assert values != null;
         this.values = values;
+        this.longs = longs;
+        this.doubles = doubles;
+        this.booleans = booleans;
+        this.size = size;
+    }
+
+    private static JSONArray ofLongs(long[] values) {
+        return new JSONArray(null, values, null, null, values.length);
+    }
+
+    private static JSONArray ofDoubles(double[] values) {
+        return new JSONArray(null, null, values, null, values.length);
     }
 
     /**
@@ -42,9 +68,34 @@ public final class JSONArray extends JSONElement {
         return JSONArray.ofTrustedArray(elements);
     }
 
-    // Elements are not cloned.
+    // Elements are not cloned.  Numbers which are all stored as longs, or
+    // all equal to a double, such as parsed decimals whose digits are what
+    // Double.toString prints, are unboxed.
     static JSONArray ofTrustedArray(JSONElement[] values) {
-        return new JSONArray(values);
+        int length = values.length;
+        if (length >= UNBOXED_MIN_LENGTH && values[0] instanceof JSONNumber first) {
+            if (first.isLongBits()) {
+                var longs = new long[length];
+                for (int i = 0; i < length; ++i) {
+                    if (!(values[i] instanceof JSONNumber n && n.isLongBits())) {
+                        return new JSONArray(values, null, null, null, length);
+                    }
+                    longs[i] = n.getLong();
+                }
+                return ofLongs(longs);
+            } else if (!Double.isNaN(first.exactDouble())) {
+                var doubles = new double[length];
+                for (int i = 0; i < length; ++i) {
+                    double d;
+                    if (!(values[i] instanceof JSONNumber n) || Double.isNaN(d = n.exactDouble())) {
+                        return new JSONArray(values, null, null, null, length);
+                    }
+                    doubles[i] = d;
+                }
+                return ofDoubles(doubles);
+            }
+        }
+        return new JSONArray(values, null, null, null, length);
     }
 
     /**
@@ -56,11 +107,11 @@ public final class JSONArray extends JSONElement {
      */
     public static JSONArray of(byte[] values) {
         int length = values.length;
-        var elements = new JSONElement[length];
+        var longs = new long[length];
         for (int i = 0; i < length; ++i) {
-            elements[i] = JSONNumber.of(values[i]);
+            longs[i] = values[i];
         }
-        return JSONArray.ofTrustedArray(elements);
+        return ofLongs(longs);
     }
 
     /**
@@ -72,11 +123,11 @@ public final class JSONArray extends JSONElement {
      */
     public static JSONArray of(short[] values) {
         int length = values.length;
-        var elements = new JSONElement[length];
+        var longs = new long[length];
         for (int i = 0; i < length; ++i) {
-            elements[i] = JSONNumber.of(values[i]);
+            longs[i] = values[i];
         }
-        return JSONArray.ofTrustedArray(elements);
+        return ofLongs(longs);
     }
 
     /**
@@ -88,11 +139,11 @@ public final class JSONArray extends JSONElement {
      */
     public static JSONArray of(int[] values) {
         int length = values.length;
-        var elements = new JSONElement[length];
+        var longs = new long[length];
         for (int i = 0; i < length; ++i) {
-            elements[i] = JSONNumber.of(values[i]);
+            longs[i] = values[i];
         }
-        return JSONArray.ofTrustedArray(elements);
+        return ofLongs(longs);
     }
 
     /**
@@ -103,12 +154,7 @@ public final class JSONArray extends JSONElement {
      * @throws NullPointerException If {@code values} is {@code null}.
      */
     public static JSONArray of(long[] values) {
-        int length = values.length;
-        var elements = new JSONElement[length];
-        for (int i = 0; i < length; ++i) {
-            elements[i] = JSONNumber.of(values[i]);
-        }
-        return JSONArray.ofTrustedArray(elements);
+        return ofLongs(values.clone());
     }
 
     /**
@@ -121,11 +167,16 @@ public final class JSONArray extends JSONElement {
      */
     public static JSONArray of(float[] values) {
         int length = values.length;
-        var elements = new JSONElement[length];
+        var doubles = new double[length];
         for (int i = 0; i < length; ++i) {
-            elements[i] = JSONNumber.of(values[i]);
+            double d = values[i];
+            if (!Double.isFinite(d)) {
+                throw new NumberFormatException("Infinite or NaN");
+            }
+            // Like JSONNumber, -0.0 is stored as 0.0.
+            doubles[i] = d + 0.0;
         }
-        return JSONArray.ofTrustedArray(elements);
+        return ofDoubles(doubles);
     }
 
     /**
@@ -138,11 +189,16 @@ public final class JSONArray extends JSONElement {
      */
     public static JSONArray of(double[] values) {
         int length = values.length;
-        var elements = new JSONElement[length];
+        var doubles = new double[length];
         for (int i = 0; i < length; ++i) {
-            elements[i] = JSONNumber.of(values[i]);
+            double d = values[i];
+            if (!Double.isFinite(d)) {
+                throw new NumberFormatException("Infinite or NaN");
+            }
+            // Like JSONNumber, -0.0 is stored as 0.0.
+            doubles[i] = d + 0.0;
         }
-        return JSONArray.ofTrustedArray(elements);
+        return ofDoubles(doubles);
     }
 
     /**
@@ -153,12 +209,7 @@ public final class JSONArray extends JSONElement {
      * @throws NullPointerException If {@code values} is {@code null}.
      */
     public static JSONArray of(boolean[] values) {
-        int length = values.length;
-        var elements = new JSONElement[length];
-        for (int i = 0; i < length; ++i) {
-            elements[i] = JSONBoolean.of(values[i]);
-        }
-        return JSONArray.ofTrustedArray(elements);
+        return new JSONArray(null, null, null, values.clone(), values.length);
     }
 
     /**
@@ -242,9 +293,9 @@ public final class JSONArray extends JSONElement {
      */
     @Override
     public List<?> toRawObject() {
-        var list = new ArrayList<>(values.length);
-        for (JSONAccessor e : values) {
-            list.add(e.toRawObject());
+        var list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            list.add(get(i).toRawObject());
         }
         return Collections.unmodifiableList(list);
     }
@@ -259,14 +310,18 @@ public final class JSONArray extends JSONElement {
 
     @Override
     Appendable appendJSON(Appendable appendable, boolean ascii) throws IOException {
-        int length = values.length;
+        int length = size;
         if (length == 0) {
             return appendable.append("[]");
         }
         appendable.append('[');
         int i = 0;
         while (true) {
-            values[i++].appendJSON(appendable, ascii);
+            if (longs != null) {
+                appendable.append(Long.toString(longs[i++]));
+            } else {
+                get(i++).appendJSON(appendable, ascii);
+            }
             if (i == length) {
                 return appendable.append(']');
             }
@@ -284,7 +339,7 @@ public final class JSONArray extends JSONElement {
 
     @Override
     Appendable append(Appendable appendable, int indent, int prefixBlanks, boolean ascii) throws IOException {
-        int length = values.length;
+        int length = size;
         if (length == 0) {
             return appendable.append("[]");
         }
@@ -294,7 +349,7 @@ public final class JSONArray extends JSONElement {
         int newPrefixBlanks = prefixBlanks + indent;
         int i = 0;
         while (true) {
-            values[i++].append(appendable, indent, newPrefixBlanks, ascii);
+            get(i++).append(appendable, indent, newPrefixBlanks, ascii);
             if (i == length) {
                 return appendable.append(LINE_SEPARATOR).append(pre).append("]");
             }
@@ -311,17 +366,29 @@ public final class JSONArray extends JSONElement {
      */
     @Override
     public JSONElement get(int index) {
-        return values[index];
+        if (values != null) {
+            return values[index];
+        } else if (longs != null) {
+            return JSONNumber.of(longs[index]);
+        } else if (doubles != null) {
+            return JSONNumber.of(doubles[index]);
+        } else {
+            return JSONBoolean.of(booleans[index]);
+        }
     }
 
     /**
-     * Returns an immutable list of JSON elements.
+     * Returns an immutable list of JSON elements.  If the elements are stored
+     * unboxed, the list creates them when they are accessed.
      *
      * @return An immutable list of JSON elements.
      */
     @Override
     public List<? extends JSONElement> getList() {
-        return List.of(values);
+        if (values != null) {
+            return List.of(values);
+        }
+        return new ElementList();
     }
 
     /**
@@ -331,7 +398,49 @@ public final class JSONArray extends JSONElement {
      */
     @Override
     public int size() {
-        return values.length;
+        return size;
+    }
+
+    /**
+     * Returns the elements of this array as {@code long}s, as returned by
+     * {@link JSONElement#getLong()}.
+     *
+     * @return A new array containing the elements of this array as {@code long}s.
+     * @throws JSONTypeMismatchException if one of the elements is not a number.
+     */
+    public long[] toLongArray() {
+        if (longs != null) {
+            return longs.clone();
+        }
+        var result = new long[size];
+        for (int i = 0; i < size; ++i) {
+            result[i] = get(i).getLong();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the elements of this array as {@code double}s, as returned by
+     * {@link JSONElement#getDouble()}.
+     *
+     * @return A new array containing the elements of this array as {@code double}s.
+     * @throws JSONTypeMismatchException if one of the elements is not a number.
+     */
+    public double[] toDoubleArray() {
+        if (doubles != null) {
+            return doubles.clone();
+        }
+        var result = new double[size];
+        if (longs != null) {
+            for (int i = 0; i < size; ++i) {
+                result[i] = longs[i];
+            }
+            return result;
+        }
+        for (int i = 0; i < size; ++i) {
+            result[i] = get(i).getDouble();
+        }
+        return result;
     }
 
     /**
@@ -343,7 +452,24 @@ public final class JSONArray extends JSONElement {
      */
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof JSONArray a && Arrays.equals(values, a.values);
+        if (!(obj instanceof JSONArray a) || a.size != size) {
+            return false;
+        }
+        if (values != null && a.values != null) {
+            return Arrays.equals(values, a.values);
+        } else if (longs != null && a.longs != null) {
+            return Arrays.equals(longs, a.longs);
+        } else if (doubles != null && a.doubles != null) {
+            return Arrays.equals(doubles, a.doubles);
+        } else if (booleans != null && a.booleans != null) {
+            return Arrays.equals(booleans, a.booleans);
+        }
+        for (int i = 0; i < size; ++i) {
+            if (!get(i).equals(a.get(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -354,6 +480,26 @@ public final class JSONArray extends JSONElement {
      */
     @Override
     public int hashCode() {
-        return Arrays.hashCode(values);
+        if (values != null) {
+            return Arrays.hashCode(values);
+        }
+        int h = 1;
+        for (int i = 0; i < size; ++i) {
+            h = 31 * h + get(i).hashCode();
+        }
+        return h;
+    }
+
+    // The list of the elements of an array stored unboxed.
+    private final class ElementList extends AbstractList<JSONElement> implements RandomAccess {
+        @Override
+        public JSONElement get(int index) {
+            return JSONArray.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
     }
 }
@@ -0,0 +1,252 @@
+package com.yuantj.json;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A non-blocking parser fed with chunks of UTF-8 encoded input, for example
+ * the buffers read from a non-blocking channel.  Instances are created by
+ * {@link JSON#asyncParser(Consumer)}.
+ *
+ * The input is a sequence of JSON values separated by optional whitespace,
+ * each of them parsed like {@link JSON#parse(byte[])}.  Every value is passed
+ * to the consumer as soon as its last byte has been fed, so that a single
+ * document is simply a sequence of one value.  Numbers and literals at the
+ * top level are only complete when they are followed by whitespace, another
+ * value or the end of the input.
+ * <pre>{@code
+ * JSONAsyncParser p = JSON.asyncParser(value -> handle(value));
+ * while (channel.read(buffer) >= 0) {
+ *     p.feed(buffer.flip());
+ *     buffer.clear();
+ * }
+ * p.endOfInput();
+ * }</pre>
+ *
+ * Values split across chunks are kept until they are complete, values within
+ * a single chunk are parsed directly from it.  Error positions are offsets in
+ * the whole input.  Once an error has been thrown, the parser is closed.
+ * Instances of this class are not thread-safe.
+ *
+ * @author yuantj
+ * @version 1.0
+ */
+public final class JSONAsyncParser {
+    // Between values.
+    private static final int IDLE = 0;
+    // Inside a container, outside of strings.
+    private static final int CONTAINER = 1;
+    // Inside a string.
+    private static final int STRING = 2;
+    // Right after a '\' inside a string.
+    private static final int ESCAPE = 3;
+    // Inside a number or a literal at the top level.
+    private static final int SCALAR = 4;
+
+    private final Consumer<? super JSONElement> consumer;
+    private int state = IDLE;
+    // Bracket depth inside the current value, 0 for a top-level string.
+    private int depth = 0;
+    // Bytes of the current value fed in previous chunks.
+    private byte[] pending = new byte[0];
+    private int pendingLength = 0;
+    // Offset of the start of the current value in the whole input.
+    private long valueOffset;
+    // Offset of the current chunk in the whole input.
+    private long offset = 0;
+    // Current line, and the offset where it starts.
+    private long line = 1;
+    private long lineOffset = 0;
+    // Line of the start of the current value, and the offset where it starts.
+    private long valueLine;
+    private long valueLineOffset;
+    private boolean closed = false;
+
+    JSONAsyncParser(Consumer<? super JSONElement> consumer) {
+        this.consumer = Objects.requireNonNull(consumer);
+    }
+
+    /**
+     * Feeds the remaining bytes of the specified buffer, passing all the values
+     * completed by them to the consumer.  The buffer is consumed, that is, its
+     * position is set to its limit, and it may be reused by the caller once
+     * this method returns.
+     *
+     * @param chunk The next bytes of the input.
+     * @throws JSONParseException if a value completed by the chunk is invalid.
+     * @throws IllegalStateException if {@link #endOfInput()} has been called,
+     * or an error has been thrown.
+     * @throws NullPointerException if the parameter is {@code null}.
+     */
+    public void feed(ByteBuffer chunk) {
+        Objects.requireNonNull(chunk);
+        checkOpen();
+        int start = chunk.position();
+        int limit = chunk.limit();
+        // Start of the current value in this chunk, or the start of the
+        // chunk if the value started in a previous one.
+        int valueStart = start;
+        try {
+            for (int i = start; i < limit; ++i) {
+                byte b = chunk.get(i);
+                if (b == '\n') {
+                    line++;
+                    lineOffset = offset + i - start + 1;
+                }
+                switch (state) {
+                    case IDLE:
+                        if (JSONParser.isLatin1WhiteSpace((char)b)) {
+                            break;
+                        }
+                        valueStart = i;
+                        valueOffset = offset + i - start;
+                        valueLine = line;
+                        valueLineOffset = lineOffset;
+                        if (startValue(b)) {
+                            complete(chunk, valueStart, i + 1);
+                        }
+                        break;
+                    case CONTAINER:
+                        if (b == '"') {
+                            state = STRING;
+                        } else if (b == '{' || b == '[') {
+                            depth++;
+                        } else if ((b == '}' || b == ']') && --depth == 0) {
+                            complete(chunk, valueStart, i + 1);
+                        }
+                        break;
+                    case STRING:
+                        if (b == '"') {
+                            if (depth == 0) {
+                                complete(chunk, valueStart, i + 1);
+                            } else {
+                                state = CONTAINER;
+                            }
+                        } else if (b == '\\') {
+                            state = ESCAPE;
+                        }
+                        break;
+                    case ESCAPE:
+                        state = STRING;
+                        break;
+                    case SCALAR:
+                        if (isScalarEnd(b)) {
+                            complete(chunk, valueStart, i);
+                            if (!JSONParser.isLatin1WhiteSpace((char)b)) {
+                                // The byte is the start of the next value.
+                                --i;
+                            }
+                        }
+                        break;
+                    default:
+                        throw new AssertionError(state);
+                }
+            }
+            if (state != IDLE) {
+                append(chunk, valueStart, limit);
+            }
+        } catch (RuntimeException e) {
+            closed = true;
+            throw e;
+        }
+        chunk.position(limit);
+        offset += limit - start;
+    }
+
+    /**
+     * Signals the end of the input, passing the last value to the consumer if
+     * it is complete.  The parser is closed afterwards.
+     *
+     * @throws JSONParseException if the input ends inside a value, or the last
+     * value is invalid.
+     * @throws IllegalStateException if this method has already been called,
+     * or an error has been thrown.
+     */
+    public void endOfInput() {
+        checkOpen();
+        closed = true;
+        if (state != IDLE) {
+            // Incomplete containers and strings are reported by the parser.
+            consumer.accept(parse(ByteBuffer.wrap(pending, 0, pendingLength), valueOffset));
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("parser is closed");
+        }
+    }
+
+    // Starts a value with its first byte, returns true if the byte is a
+    // complete value, which can only be invalid.
+    private boolean startValue(byte b) {
+        switch (b) {
+            case '{':
+            case '[':
+                state = CONTAINER;
+                depth = 1;
+                return false;
+            case '"':
+                state = STRING;
+                depth = 0;
+                return false;
+            case '}':
+            case ']':
+            case ',':
+            case ':':
+                return true;
+            default:
+                state = SCALAR;
+                return false;
+        }
+    }
+
+    private static boolean isScalarEnd(byte b) {
+        switch (b) {
+            case ' ':
+            case '\t':
+            case '\n':
+            case '\r':
+            case '{':
+            case '}':
+            case '[':
+            case ']':
+            case '"':
+            case ',':
+            case ':':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Parses the value ending at index end of the chunk.  Its bytes in the
+    // chunk start at index start, preceded by the pending bytes if any.
+    private void complete(ByteBuffer chunk, int start, int end) {
+        state = IDLE;
+        JSONElement value;
+        if (pendingLength == 0) {
+            value = parse(chunk.duplicate().position(start).limit(end), valueOffset - start);
+        } else {
+            append(chunk, start, end);
+            value = parse(ByteBuffer.wrap(pending, 0, pendingLength), valueOffset);
+            pendingLength = 0;
+        }
+        consumer.accept(value);
+    }
+
+    private JSONElement parse(ByteBuffer input, long base) {
+        return new Utf8JSONParser(input, base, valueLine, valueLineOffset).parse();
+    }
+
+    private void append(ByteBuffer chunk, int start, int end) {
+        int n = end - start;
+        if (pendingLength + n > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(pendingLength + n, pending.length * 2));
+        }
+        chunk.get(start, pending, pendingLength, n);
+        pendingLength += n;
+    }
+}
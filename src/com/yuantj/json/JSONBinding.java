@@ -0,0 +1,131 @@
+package com.yuantj.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads and writes values of a Java type directly from and to JSON text,
+ * without building {@link JSONElement} trees.  Bindings of classes are
+ * returned by {@link JSON#bind(Class)}.
+ *
+ * Values are read from the tokens of a {@link JSONReader}, and written as
+ * compact JSON text.  A {@code null} is read from and written as the JSON
+ * {@code null}, except for primitive types.
+ * <pre>{@code
+ * record Point(int x, int y) {}
+ *
+ * JSONBinding<Point> binding = JSON.bind(Point.class);
+ * Point p = binding.parse("{\"x\": 1, \"y\": 2}");
+ * String json = binding.stringify(p); // {"x":1,"y":2}
+ * }</pre>
+ *
+ * Implementations must be thread-safe.
+ *
+ * @param <T> The bound type.
+ * @author yuantj
+ * @version 1.0
+ */
+public interface JSONBinding<T> {
+    /**
+     * Reads the value starting at the current token of the reader.  If the
+     * value is an object or an array, the current token becomes the matching
+     * {@link JSONToken#END_OBJECT} or {@link JSONToken#END_ARRAY}, like
+     * {@link JSONReader#readElement()}.
+     *
+     * @param reader The reader, whose current token is the start of a value.
+     * @return The value read.
+     * @throws JSONTypeMismatchException if the value does not match the bound type.
+     * @throws JSONParseException if the document is invalid.
+     */
+    T read(JSONReader reader);
+
+    /**
+     * Appends the JSON text of the specified value.
+     *
+     * @param value The value to write, may be {@code null} unless the bound
+     * type is primitive.
+     * @param appendable The appendable to append to.
+     * @throws IOException if an I/O error occurs.
+     */
+    void write(T value, Appendable appendable) throws IOException;
+
+    /**
+     * Parses a JSON document containing a single value of the bound type.
+     *
+     * @implSpec This implementation reads the first token of
+     * {@link JSON#reader(String)}, calls {@link #read(JSONReader)}, and
+     * checks that the document ends after the value.
+     *
+     * @param json The JSON document.
+     * @return The value of the document.
+     * @throws JSONTypeMismatchException if the value does not match the bound type.
+     * @throws JSONParseException if the document is invalid.
+     */
+    default T parse(String json) {
+        return readDocument(JSON.reader(json));
+    }
+
+    /**
+     * Parses a UTF-8 encoded JSON document containing a single value of the
+     * bound type.
+     *
+     * @implSpec This implementation is like {@link #parse(String)}, using
+     * {@link JSON#reader(byte[])}.
+     *
+     * @param utf8 The UTF-8 encoded JSON document.
+     * @return The value of the document.
+     * @throws JSONTypeMismatchException if the value does not match the bound type.
+     * @throws JSONParseException if the document is invalid.
+     */
+    default T parse(byte[] utf8) {
+        return readDocument(JSON.reader(utf8));
+    }
+
+    /**
+     * Reads a JSON document containing a single value of the bound type.
+     *
+     * @implSpec This implementation is like {@link #parse(String)}, using
+     * {@link JSON#reader(Reader)}.
+     *
+     * @param in The reader of the JSON document.
+     * @return The value of the document.
+     * @throws IOException if an I/O error occurs.
+     * @throws JSONTypeMismatchException if the value does not match the bound type.
+     * @throws JSONParseException if the document is invalid.
+     */
+    default T load(Reader in) throws IOException {
+        try {
+            return readDocument(JSON.reader(in));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private T readDocument(JSONReader reader) {
+        reader.nextToken();
+        T value = read(reader);
+        // Fails if anything but whitespace follows the value.
+        reader.nextToken();
+        return value;
+    }
+
+    /**
+     * Returns the JSON text of the specified value.
+     *
+     * @implSpec This implementation calls {@link #write(Object, Appendable)}
+     * with a {@link StringBuilder}.
+     *
+     * @param value The value to write.
+     * @return The JSON text of the value.
+     */
+    default String stringify(T value) {
+        var sb = new StringBuilder();
+        try {
+            write(value, sb);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,767 @@
+package com.yuantj.json;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// The bindings returned by JSON.bind(Class), created once per class and
+// cached in a ClassValue.
+//
+// Records are created through their canonical constructor, and JavaBeans
+// through their no-arg constructor and setters.  Both are written through
+// their accessors.  All of them are called through method handles looked
+// up when the binding is created, so that no reflection happens while
+// reading or writing.
+final class JSONBindings {
+    private static final ClassValue<JSONBinding<?>> BINDINGS = new ClassValue<>() {
+        @Override
+        protected JSONBinding<?> computeValue(Class<?> type) {
+            return create(type);
+        }
+    };
+
+    private static final Map<Class<?>, JSONBinding<?>> SCALARS = new HashMap<>();
+
+    private static final Map<Class<?>, JSONType> ELEMENT_TYPES = Map.of(
+            JSONObject.class, JSONType.OBJECT,
+            JSONArray.class, JSONType.ARRAY,
+            JSONString.class, JSONType.STRING,
+            JSONNumber.class, JSONType.NUMBER,
+            JSONBoolean.class, JSONType.BOOLEAN,
+            JSONNull.class, JSONType.NULL);
+
+    static {
+        scalar(String.class, JSONType.STRING, JSONReader::getStringValue,
+                (v, a) -> JSONString.rawStringToJSON(v, a, false));
+        scalar(boolean.class, Boolean.class, JSONType.BOOLEAN, JSONReader::getBooleanValue,
+                (v, a) -> a.append(v.toString()));
+        // A number which does not fit into the type is a mismatch, instead
+        // of being truncated or rounded to infinity.
+        scalar(int.class, Integer.class, JSONType.NUMBER, JSONReader::getIntValueExact,
+                (v, a) -> a.append(v.toString()));
+        scalar(long.class, Long.class, JSONType.NUMBER, JSONReader::getLongValueExact,
+                (v, a) -> a.append(v.toString()));
+        scalar(short.class, Short.class, JSONType.NUMBER,
+                r -> (short)r.getNumberValue().getLongExact(Short.MIN_VALUE, Short.MAX_VALUE, "short"),
+                (v, a) -> a.append(v.toString()));
+        scalar(byte.class, Byte.class, JSONType.NUMBER,
+                r -> (byte)r.getNumberValue().getLongExact(Byte.MIN_VALUE, Byte.MAX_VALUE, "byte"),
+                (v, a) -> a.append(v.toString()));
+        scalar(double.class, Double.class, JSONType.NUMBER, JSONBindings::readDouble,
+                (v, a) -> JSONNumber.of(v).appendJSON(a, false));
+        scalar(float.class, Float.class, JSONType.NUMBER, JSONBindings::readFloat,
+                (v, a) -> JSONNumber.of(v).appendJSON(a, false));
+        scalar(BigDecimal.class, JSONType.NUMBER, JSONReader::getDecimalValue,
+                (v, a) -> JSONNumber.of(v).appendJSON(a, false));
+        scalar(BigInteger.class, JSONType.NUMBER, JSONBindings::readBigInteger,
+                (v, a) -> a.append(v.toString()));
+    }
+
+    // JSON numbers are finite, so an infinite value is out of range.
+    private static double readDouble(JSONReader reader) {
+        double d = reader.getDoubleValue();
+        if (Double.isInfinite(d)) {
+            throw reader.getNumberValue().cannotConvert("double");
+        }
+        return d;
+    }
+
+    private static float readFloat(JSONReader reader) {
+        float f = (float)reader.getDoubleValue();
+        if (Float.isInfinite(f)) {
+            throw reader.getNumberValue().cannotConvert("float");
+        }
+        return f;
+    }
+
+    private static BigInteger readBigInteger(JSONReader reader) {
+        try {
+            return reader.getDecimalValue().toBigIntegerExact();
+        } catch (ArithmeticException e) {
+            throw reader.getNumberValue().cannotConvert("BigInteger");
+        }
+    }
+
+    private JSONBindings() {}
+
+    private static <T> void scalar(Class<T> type, JSONType expected,
+                                   Function<JSONReader, ? extends T> reader, Writer<? super T> writer) {
+        SCALARS.put(type, new Scalar<>(true, expected, reader, writer));
+    }
+
+    private static <T> void scalar(Class<?> primitive, Class<T> type, JSONType expected,
+                                   Function<JSONReader, ? extends T> reader, Writer<? super T> writer) {
+        SCALARS.put(primitive, new Scalar<>(false, expected, reader, writer));
+        SCALARS.put(type, new Scalar<>(true, expected, reader, writer));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> JSONBinding<T> of(Class<T> type) {
+        return (JSONBinding<T>)BINDINGS.get(type);
+    }
+
+    private static JSONBinding<?> create(Class<?> type) {
+        JSONBinding<?> scalar = SCALARS.get(type);
+        if (scalar != null) {
+            return scalar;
+        } else if (type == Object.class) {
+            return new Element<>(Object.class, null, JSONElement::toRawObject);
+        } else if (JSONAccessor.class.isAssignableFrom(type)) {
+            JSONType expected = ELEMENT_TYPES.get(type);
+            if (expected == null && !type.isAssignableFrom(JSONElement.class)) {
+                throw new IllegalArgumentException("cannot bind " + type.getName());
+            }
+            return new Element<>(type, expected, e -> e);
+        } else if (type.isEnum()) {
+            return new EnumBinding<>(type);
+        } else if (type.isArray()) {
+            return new ArrayBinding(type.getComponentType(), of((Type)type.getComponentType()));
+        } else if (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+            return of(type, new Type[] {Object.class, Object.class});
+        } else if (type.isRecord()) {
+            JSONBinding<?> codec = generatedCodec(type);
+            return codec != null ? codec : new RecordBinding<>(type);
+        } else if (type.isPrimitive() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException("cannot bind " + type.getName());
+        } else {
+            return new BeanBinding<>(type);
+        }
+    }
+
+    // Returns the codec generated for a record annotated with JSONCodec,
+    // or null if there is none.  See JSONCodec for the name of the codec.
+    private static JSONBinding<?> generatedCodec(Class<?> type) {
+        String name = type.getName();
+        int dot = name.lastIndexOf('.');
+        String codecName = name.substring(0, dot + 1) + name.substring(dot + 1).replace('$', '_') + "_JSONCodec";
+        Class<?> codec;
+        try {
+            codec = Class.forName(codecName, true, type.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            return (JSONBinding<?>)codec.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("cannot bind " + type.getName() + " with " + codecName, e);
+        }
+    }
+
+    // Returns the binding of a generic type, such as the type of a property.
+    // Records and beans are bound lazily, so that their bindings may refer
+    // to each other.
+    static JSONBinding<?> of(Type type) {
+        if (type instanceof Class<?> c) {
+            if (SCALARS.containsKey(c) || c.isEnum() || c.isArray() || c == Object.class) {
+                return of(c);
+            }
+            return new Deferred<>(c);
+        } else if (type instanceof ParameterizedType p) {
+            return of((Class<?>)p.getRawType(), p.getActualTypeArguments());
+        } else if (type instanceof GenericArrayType g) {
+            Type component = g.getGenericComponentType();
+            return new ArrayBinding(erasure(component), of(component));
+        } else if (type instanceof WildcardType w) {
+            return of(w.getUpperBounds()[0]);
+        } else if (type instanceof TypeVariable<?> v) {
+            return of(v.getBounds()[0]);
+        }
+        throw new IllegalArgumentException("cannot bind " + type.getTypeName());
+    }
+
+    private static JSONBinding<?> of(Class<?> raw, Type[] arguments) {
+        if (Collection.class.isAssignableFrom(raw)) {
+            return new CollectionBinding(collectionFactory(raw), of(arguments[0]));
+        } else if (Map.class.isAssignableFrom(raw)) {
+            if (erasure(arguments[0]) != String.class && erasure(arguments[0]) != Object.class) {
+                throw new IllegalArgumentException("cannot bind map keys of " + arguments[0].getTypeName());
+            }
+            return new MapBinding(mapFactory(raw), of(arguments[1]));
+        }
+        return of((Type)raw);
+    }
+
+    private static Class<?> erasure(Type type) {
+        if (type instanceof Class<?> c) {
+            return c;
+        } else if (type instanceof ParameterizedType p) {
+            return (Class<?>)p.getRawType();
+        } else if (type instanceof GenericArrayType g) {
+            return erasure(g.getGenericComponentType()).arrayType();
+        } else if (type instanceof WildcardType w) {
+            return erasure(w.getUpperBounds()[0]);
+        } else if (type instanceof TypeVariable<?> v) {
+            return erasure(v.getBounds()[0]);
+        }
+        throw new IllegalArgumentException("cannot bind " + type.getTypeName());
+    }
+
+    private static Supplier<Collection<Object>> collectionFactory(Class<?> raw) {
+        if (raw.isAssignableFrom(ArrayList.class)) {
+            return ArrayList::new;
+        } else if (raw.isAssignableFrom(LinkedHashSet.class)) {
+            return LinkedHashSet::new;
+        } else if (raw.isAssignableFrom(TreeSet.class) && SortedSet.class.isAssignableFrom(raw)) {
+            return TreeSet::new;
+        }
+        return factory(raw);
+    }
+
+    private static Supplier<Map<String, Object>> mapFactory(Class<?> raw) {
+        if (raw.isAssignableFrom(LinkedHashMap.class)) {
+            return LinkedHashMap::new;
+        } else if (raw.isAssignableFrom(TreeMap.class) && SortedMap.class.isAssignableFrom(raw)) {
+            return TreeMap::new;
+        }
+        return factory(raw);
+    }
+
+    // Returns a supplier calling the no-arg constructor of the class.
+    private static <T> Supplier<T> factory(Class<?> type) {
+        MethodHandle constructor = constructor(type).asType(MethodType.methodType(Object.class));
+        return () -> {
+            try {
+                @SuppressWarnings("unchecked")
+                T value = (T)(Object)constructor.invokeExact();
+                return value;
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    private static MethodHandle constructor(Class<?> type, Class<?>... parameterTypes) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException("cannot bind " + type.getName());
+        }
+        try {
+            return lookup(type).unreflectConstructor(type.getDeclaredConstructor(parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("cannot bind " + type.getName(), e);
+        }
+    }
+
+    private static MethodHandle getter(Method method) {
+        try {
+            return lookup(method.getDeclaringClass()).unreflect(method)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("cannot bind " + method, e);
+        }
+    }
+
+    // Members of classes in packages open to this module, such as all
+    // packages on the class path, are accessible even if they are not
+    // public.
+    private static MethodHandles.Lookup lookup(Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            return MethodHandles.publicLookup();
+        }
+    }
+
+    // Method handles declare Throwable, but the constructors and accessors
+    // called by bindings seldom throw checked exceptions.
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException r) {
+            throw r;
+        } else if (e instanceof Error r) {
+            throw r;
+        }
+        throw new IllegalStateException(e);
+    }
+
+    private static JSONType typeOf(JSONToken token) {
+        if (token == null) {
+            throw new IllegalStateException("value expected, current token is null");
+        }
+        switch (token) {
+            case START_OBJECT:
+                return JSONType.OBJECT;
+            case START_ARRAY:
+                return JSONType.ARRAY;
+            case VALUE_STRING:
+                return JSONType.STRING;
+            case VALUE_NUMBER:
+                return JSONType.NUMBER;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return JSONType.BOOLEAN;
+            case VALUE_NULL:
+                return JSONType.NULL;
+            default:
+                throw new IllegalStateException("value expected, current token is " + token);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Writer<T> {
+        void write(T value, Appendable appendable) throws IOException;
+    }
+
+    // Handles null, and checks the type of the other values.  A null is
+    // read as the value of the JSON null only if the binding is nullable,
+    // and always written as the JSON null.
+    private abstract static class Base<T> implements JSONBinding<T> {
+        private final boolean nullable;
+        private final JSONType expected;
+
+        Base(boolean nullable, JSONType expected) {
+            this.nullable = nullable;
+            this.expected = expected;
+        }
+
+        @Override
+        public final T read(JSONReader reader) {
+            JSONType found = typeOf(reader.currentToken());
+            if (found == JSONType.NULL && nullable) {
+                return null;
+            }
+            if (expected != null && found != expected) {
+                throw new JSONTypeMismatchException(found, expected);
+            }
+            return readValue(reader);
+        }
+
+        @Override
+        public final void write(T value, Appendable appendable) throws IOException {
+            if (value == null) {
+                appendable.append("null");
+            } else {
+                writeValue(value, appendable);
+            }
+        }
+
+        // Reads a value of the expected type.
+        abstract T readValue(JSONReader reader);
+
+        abstract void writeValue(T value, Appendable appendable) throws IOException;
+    }
+
+    private static final class Scalar<T> extends Base<T> {
+        private final Function<JSONReader, ? extends T> reader;
+        private final Writer<? super T> writer;
+
+        Scalar(boolean nullable, JSONType expected, Function<JSONReader, ? extends T> reader, Writer<? super T> writer) {
+            super(nullable, expected);
+            this.reader = reader;
+            this.writer = writer;
+        }
+
+        @Override
+        T readValue(JSONReader reader) {
+            return this.reader.apply(reader);
+        }
+
+        @Override
+        void writeValue(T value, Appendable appendable) throws IOException {
+            writer.write(value, appendable);
+        }
+    }
+
+    // Binds JSONElement, its subclasses and interfaces, and Object, read
+    // as the raw object of the element.  Bindings of a subclass only
+    // accept values of its type, and the others accept any value.
+    private static final class Element<T> extends Base<T> {
+        private final Class<T> type;
+        private final Function<JSONElement, Object> converter;
+
+        @SuppressWarnings("unchecked")
+        Element(Class<?> type, JSONType expected, Function<JSONElement, Object> converter) {
+            super(expected != null && expected != JSONType.NULL, expected);
+            this.type = (Class<T>)type;
+            this.converter = converter;
+        }
+
+        @Override
+        T readValue(JSONReader reader) {
+            return type.cast(converter.apply(reader.readElement()));
+        }
+
+        @Override
+        void writeValue(T value, Appendable appendable) throws IOException {
+            JSONElement.of(value).appendJSON(appendable, false);
+        }
+    }
+
+    private static final class EnumBinding<T> extends Base<T> {
+        private final Map<String, T> constants = new HashMap<>();
+
+        EnumBinding(Class<?> type) {
+            super(true, JSONType.STRING);
+            for (Object constant : type.getEnumConstants()) {
+                @SuppressWarnings("unchecked")
+                T t = (T)constant;
+                constants.put(((Enum<?>)constant).name(), t);
+            }
+        }
+
+        @Override
+        T readValue(JSONReader reader) {
+            String name = reader.getStringValue();
+            T value = constants.get(name);
+            if (value == null) {
+                throw new JSONTypeMismatchException(String.format("no enum constant named '%s'", name),
+                        JSONType.STRING, JSONType.STRING);
+            }
+            return value;
+        }
+
+        @Override
+        void writeValue(T value, Appendable appendable) throws IOException {
+            JSONString.rawStringToJSON(((Enum<?>)value).name(), appendable, false);
+        }
+    }
+
+    // Binds a record or a bean whose binding is only created when it is
+    // first used.
+    private static final class Deferred<T> implements JSONBinding<T> {
+        private final Class<T> type;
+
+        @SuppressWarnings("unchecked")
+        Deferred(Class<?> type) {
+            this.type = (Class<T>)type;
+        }
+
+        @Override
+        public T read(JSONReader reader) {
+            return of(type).read(reader);
+        }
+
+        @Override
+        public void write(T value, Appendable appendable) throws IOException {
+            of(type).write(value, appendable);
+        }
+    }
+
+    private static final class ArrayBinding extends Base<Object> {
+        private final Class<?> componentType;
+        private final JSONBinding<Object> component;
+
+        @SuppressWarnings("unchecked")
+        ArrayBinding(Class<?> componentType, JSONBinding<?> component) {
+            super(true, JSONType.ARRAY);
+            this.componentType = componentType;
+            this.component = (JSONBinding<Object>)component;
+        }
+
+        @Override
+        Object readValue(JSONReader reader) {
+            var list = new ArrayList<>();
+            while (reader.nextToken() != JSONToken.END_ARRAY) {
+                list.add(component.read(reader));
+            }
+            int size = list.size();
+            Object array = Array.newInstance(componentType, size);
+            for (int i = 0; i < size; ++i) {
+                Array.set(array, i, list.get(i));
+            }
+            return array;
+        }
+
+        @Override
+        void writeValue(Object value, Appendable appendable) throws IOException {
+            appendable.append('[');
+            int length = Array.getLength(value);
+            for (int i = 0; i < length; ++i) {
+                if (i > 0) {
+                    appendable.append(',');
+                }
+                component.write(Array.get(value, i), appendable);
+            }
+            appendable.append(']');
+        }
+    }
+
+    private static final class CollectionBinding extends Base<Collection<Object>> {
+        private final Supplier<Collection<Object>> factory;
+        private final JSONBinding<Object> element;
+
+        @SuppressWarnings("unchecked")
+        CollectionBinding(Supplier<Collection<Object>> factory, JSONBinding<?> element) {
+            super(true, JSONType.ARRAY);
+            this.factory = factory;
+            this.element = (JSONBinding<Object>)element;
+        }
+
+        @Override
+        Collection<Object> readValue(JSONReader reader) {
+            Collection<Object> collection = factory.get();
+            while (reader.nextToken() != JSONToken.END_ARRAY) {
+                collection.add(element.read(reader));
+            }
+            return collection;
+        }
+
+        @Override
+        void writeValue(Collection<Object> value, Appendable appendable) throws IOException {
+            appendable.append('[');
+            boolean first = true;
+            for (Object e : value) {
+                if (!first) {
+                    appendable.append(',');
+                }
+                first = false;
+                element.write(e, appendable);
+            }
+            appendable.append(']');
+        }
+    }
+
+    private static final class MapBinding extends Base<Map<String, Object>> {
+        private final Supplier<Map<String, Object>> factory;
+        private final JSONBinding<Object> value;
+
+        @SuppressWarnings("unchecked")
+        MapBinding(Supplier<Map<String, Object>> factory, JSONBinding<?> value) {
+            super(true, JSONType.OBJECT);
+            this.factory = factory;
+            this.value = (JSONBinding<Object>)value;
+        }
+
+        @Override
+        Map<String, Object> readValue(JSONReader reader) {
+            Map<String, Object> map = factory.get();
+            while (reader.nextToken() != JSONToken.END_OBJECT) {
+                String name = reader.getStringValue();
+                reader.nextToken();
+                map.put(name, value.read(reader));
+            }
+            return map;
+        }
+
+        @Override
+        void writeValue(Map<String, Object> map, Appendable appendable) throws IOException {
+            appendable.append('{');
+            boolean first = true;
+            for (var e : map.entrySet()) {
+                if (!first) {
+                    appendable.append(',');
+                }
+                first = false;
+                JSONString.rawStringToJSON(String.valueOf(e.getKey()), appendable, false).append(':');
+                value.write(e.getValue(), appendable);
+            }
+            appendable.append('}');
+        }
+    }
+
+    // A property of a record or a bean.
+    private static final class Property {
+        final String name;
+        // The name as a JSON string followed by ':'.
+        final String prefix;
+        final JSONBinding<Object> binding;
+        // Takes the object and returns the value, or takes the object and
+        // the value for setters of beans.
+        final MethodHandle accessor;
+
+        @SuppressWarnings("unchecked")
+        Property(String name, Type type, MethodHandle accessor) {
+            this.name = name;
+            this.prefix = JSONString.rawStringToJSON(name, false) + ":";
+            this.binding = (JSONBinding<Object>)of(type);
+            this.accessor = accessor;
+        }
+    }
+
+    private abstract static class ObjectBinding<T> extends Base<T> {
+        private final Property[] getters;
+
+        ObjectBinding(Property[] getters) {
+            super(true, JSONType.OBJECT);
+            this.getters = getters;
+        }
+
+        @Override
+        void writeValue(T value, Appendable appendable) throws IOException {
+            appendable.append('{');
+            for (int i = 0; i < getters.length; ++i) {
+                Property p = getters[i];
+                Object v;
+                try {
+                    v = (Object)p.accessor.invokeExact((Object)value);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+                if (i > 0) {
+                    appendable.append(',');
+                }
+                appendable.append(p.prefix);
+                p.binding.write(v, appendable);
+            }
+            appendable.append('}');
+        }
+    }
+
+    // Fields missing from the document are null, or zero for primitive
+    // types, and unknown fields are skipped.
+    private static final class RecordBinding<T> extends ObjectBinding<T> {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final Property[] components;
+        private final Object[] defaults;
+        // Takes the arguments in an Object[].
+        private final MethodHandle constructor;
+
+        RecordBinding(Class<?> type) {
+            this(type, properties(type.getRecordComponents()));
+        }
+
+        private RecordBinding(Class<?> type, Property[] components) {
+            super(components);
+            RecordComponent[] rc = type.getRecordComponents();
+            int n = rc.length;
+            this.components = components;
+            defaults = new Object[n];
+            var parameterTypes = new Class<?>[n];
+            for (int i = 0; i < n; ++i) {
+                parameterTypes[i] = rc[i].getType();
+                if (parameterTypes[i].isPrimitive()) {
+                    defaults[i] = Array.get(Array.newInstance(parameterTypes[i], 1), 0);
+                }
+                indexes.put(rc[i].getName(), i);
+            }
+            constructor = constructor(type, parameterTypes)
+                    .asSpreader(Object[].class, n)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        }
+
+        private static Property[] properties(RecordComponent[] rc) {
+            var properties = new Property[rc.length];
+            for (int i = 0; i < rc.length; ++i) {
+                properties[i] = new Property(rc[i].getName(), rc[i].getGenericType(), getter(rc[i].getAccessor()));
+            }
+            return properties;
+        }
+
+        @Override
+        T readValue(JSONReader reader) {
+            Object[] arguments = defaults.clone();
+            while (reader.nextToken() != JSONToken.END_OBJECT) {
+                Integer index = indexes.get(reader.getStringValue());
+                reader.nextToken();
+                if (index == null) {
+                    reader.skipChildren();
+                } else {
+                    arguments[index] = components[index].binding.read(reader);
+                }
+            }
+            try {
+                @SuppressWarnings("unchecked")
+                T value = (T)(Object)constructor.invokeExact(arguments);
+                return value;
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+    // Properties are found like java.beans.Introspector does, from the
+    // public getX, isX and setX methods, and written in the order of
+    // their names.  Fields without setter are skipped.
+    private static final class BeanBinding<T> extends ObjectBinding<T> {
+        private final Map<String, Property> setters;
+        private final Supplier<T> factory;
+
+        BeanBinding(Class<?> type) {
+            this(type, new TreeMap<>(), new HashMap<>());
+        }
+
+        private BeanBinding(Class<?> type, TreeMap<String, Property> getters, Map<String, Property> setters) {
+            super(findProperties(type, getters, setters));
+            this.setters = setters;
+            this.factory = factory(type);
+        }
+
+        private static Property[] findProperties(Class<?> type, TreeMap<String, Property> getters,
+                                                 Map<String, Property> setters) {
+            for (Method m : type.getMethods()) {
+                if (Modifier.isStatic(m.getModifiers()) || m.isBridge() || m.getDeclaringClass() == Object.class) {
+                    continue;
+                }
+                String name = m.getName();
+                int count = m.getParameterCount();
+                if (count == 0 && m.getReturnType() != void.class) {
+                    String property = name.startsWith("get") ? propertyName(name, 3)
+                            : name.startsWith("is") && m.getReturnType() == boolean.class ? propertyName(name, 2)
+                            : null;
+                    if (property != null) {
+                        getters.put(property, new Property(property, m.getGenericReturnType(), getter(m)));
+                    }
+                } else if (count == 1 && name.startsWith("set")) {
+                    String property = propertyName(name, 3);
+                    if (property != null) {
+                        setters.put(property, new Property(property, m.getGenericParameterTypes()[0], setter(m)));
+                    }
+                }
+            }
+            return getters.values().toArray(new Property[0]);
+        }
+
+        // Like java.beans.Introspector.decapitalize(String).
+        private static String propertyName(String methodName, int prefixLength) {
+            if (methodName.length() == prefixLength) {
+                return null;
+            }
+            String name = methodName.substring(prefixLength);
+            if (name.length() > 1 && Character.isUpperCase(name.charAt(0)) && Character.isUpperCase(name.charAt(1))) {
+                return name;
+            }
+            return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+        }
+
+        private static MethodHandle setter(Method method) {
+            try {
+                return lookup(method.getDeclaringClass()).unreflect(method)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("cannot bind " + method, e);
+            }
+        }
+
+        @Override
+        T readValue(JSONReader reader) {
+            T value = factory.get();
+            while (reader.nextToken() != JSONToken.END_OBJECT) {
+                Property p = setters.get(reader.getStringValue());
+                reader.nextToken();
+                if (p == null) {
+                    reader.skipChildren();
+                } else {
+                    Object v = p.binding.read(reader);
+                    try {
+                        p.accessor.invokeExact((Object)value, v);
+                    } catch (Throwable e) {
+                        throw rethrow(e);
+                    }
+                }
+            }
+            return value;
+        }
+    }
+}
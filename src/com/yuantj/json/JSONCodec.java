@@ -0,0 +1,30 @@
+package com.yuantj.json;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a record whose {@link JSONBinding} is generated at compile time by
+ * the annotation processor {@code com.yuantj.json.processor.JSONCodecProcessor}.
+ *
+ * For a record {@code p.Outer.Point}, the processor generates the class
+ * {@code p.Outer_Point_JSONCodec}, which reads and writes the components of
+ * the record with direct calls to its constructor and accessors.
+ * {@link JSON#bind(Class)} returns an instance of the generated class if it
+ * exists, so that no reflection is used for the record.  The generated
+ * codec reads and writes the same JSON text as the binding that
+ * {@link JSON#bind(Class)} would create otherwise.
+ *
+ * The record must not be generic, and must be accessible from its package.
+ *
+ * @author yuantj
+ * @version 1.0
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface JSONCodec {
+}
@@ -32,14 +32,15 @@ public final class JSONElementBuilder implements JSONAccessor {
 
     private static JSONElementBuilder copyOfObject(JSONObject source) {
         var map = new LinkedHashMap<String, JSONElementBuilder>();
-        source.values.forEach((k, v) -> map.put(k, copyOf(v)));
+        source.getMap().forEach((k, v) -> map.put(k, copyOf(v)));
         return new JSONElementBuilder(JSONType.OBJECT, map);
     }
 
     private static JSONElementBuilder copyOfArray(JSONArray source) {
-        var list = new ArrayList<JSONElementBuilder>(source.values.length);
-        for (JSONElement e : source.values) {
-            list.add(copyOf(e));
+        int size = source.size();
+        var list = new ArrayList<JSONElementBuilder>(size);
+        for (int i = 0; i < size; ++i) {
+            list.add(copyOf(source.get(i)));
         }
         return new JSONElementBuilder(JSONType.ARRAY, list);
     }
@@ -215,7 +216,7 @@ public final class JSONElementBuilder implements JSONAccessor {
 
     @Override
     public BigDecimal getDecimal() {
-        return JSONNumber.of(getNumber()).value;
+        return JSONNumber.of(getNumber()).getDecimal();
     }
 
     @Override
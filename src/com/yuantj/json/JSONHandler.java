@@ -0,0 +1,96 @@
+package com.yuantj.json;
+
+/**
+ * Callback interface receiving the events of a JSON document, used by
+ * {@link JSON#parse(String, JSONHandler)} and the similar methods.  No
+ * {@link JSONElement} is built while parsing in this mode, so handlers can
+ * compute aggregates over large documents with constant memory, or build
+ * their own tree models directly.
+ *
+ * All methods have empty default implementations, so a handler only
+ * needs to override the events it is interested in.
+ *
+ * @author yuantj
+ * @version 1.0
+ */
+public interface JSONHandler {
+    /**
+     * Called at the start of an object.
+     */
+    default void startObject() {}
+
+    /**
+     * Called for each field of an object, before the events of its value.
+     *
+     * @param name The name of the field.
+     */
+    default void field(String name) {}
+
+    /**
+     * Called at the end of an object.
+     */
+    default void endObject() {}
+
+    /**
+     * Called at the start of an array.
+     */
+    default void startArray() {}
+
+    /**
+     * Called at the end of an array.
+     */
+    default void endArray() {}
+
+    /**
+     * Called for each number.
+     *
+     * @implSpec This implementation calls {@link #value(long)} if the number
+     * is an integer without fraction or exponent and fits into a {@code long},
+     * or calls {@link #value(double)} otherwise.  Override this method to
+     * receive numbers without loss of precision.
+     *
+     * @param value The number.
+     */
+    default void number(JSONNumber value) {
+        if (value.isLong()) {
+            value(value.getLong());
+        } else {
+            value(value.getDouble());
+        }
+    }
+
+    /**
+     * Called for integer numbers, see {@link #number(JSONNumber)}.
+     *
+     * @param value The number.
+     */
+    default void value(long value) {}
+
+    /**
+     * Called for other numbers, see {@link #number(JSONNumber)}.
+     *
+     * @param value The number.
+     */
+    default void value(double value) {}
+
+    /**
+     * Called for each string value.  The character sequence may be reused by
+     * the parser, so it is only valid during this call.  Use {@code toString()}
+     * to keep it.
+     *
+     * @param value The unescaped string.
+     */
+    default void value(CharSequence value) {}
+
+    /**
+     * Called for each boolean value.
+     *
+     * @param value The boolean value.
+     */
+    default void value(boolean value) {}
+
+    /**
+     * Called for each null value.
+     */
+    default void nullValue() {}
+}
@@ -0,0 +1,99 @@
+package com.yuantj.json;
+
+import java.nio.ByteBuffer;
+
+// A bounded cache of field names shared by all parsers, so that documents
+// repeating the same field names share one String instance per name
+// instead of allocating a new one for each occurrence.
+//
+// The cache is direct-mapped: a name is stored in the slot selected by the
+// hash of its characters, replacing whatever was there.  Slots are read and
+// written without locking, which is safe because Strings are immutable and
+// a lost update only costs a later miss.  Only names without escapes and
+// of at most MAX_LENGTH characters are cached.
+final class JSONKeyCache {
+    static final int MAX_LENGTH = 64;
+    private static final int SIZE = 1 << 12;
+
+    private static final String[] SLOTS = new String[SIZE];
+
+    private JSONKeyCache() {}
+
+    // Returns the name made of input[from, to).
+    static String get(String input, int from, int to) {
+        int length = to - from;
+        if (length > MAX_LENGTH) {
+            return input.substring(from, to);
+        }
+        int h = 0;
+        for (int i = from; i < to; ++i) {
+            h = 31 * h + input.charAt(i);
+        }
+        int slot = slot(h);
+        String s = SLOTS[slot];
+        if (s != null && s.length() == length && input.regionMatches(from, s, 0, length)) {
+            return s;
+        }
+        s = input.substring(from, to);
+        SLOTS[slot] = s;
+        return s;
+    }
+
+    // Returns the name made of input[from, to).
+    static String get(char[] input, int from, int to) {
+        int length = to - from;
+        if (length > MAX_LENGTH) {
+            return new String(input, from, length);
+        }
+        int h = 0;
+        for (int i = from; i < to; ++i) {
+            h = 31 * h + input[i];
+        }
+        int slot = slot(h);
+        String s = SLOTS[slot];
+        if (s != null && s.length() == length) {
+            int i = 0;
+            while (i < length && s.charAt(i) == input[from + i]) {
+                ++i;
+            }
+            if (i == length) {
+                return s;
+            }
+        }
+        s = new String(input, from, length);
+        SLOTS[slot] = s;
+        return s;
+    }
+
+    // Returns the name made of the ASCII bytes input[from, to).
+    static String get(ByteBuffer input, int from, int to) {
+        int length = to - from;
+        if (length > MAX_LENGTH) {
+            return Utf8JSONParser.latin1String(input, from, to);
+        }
+        int h = 0;
+        for (int i = from; i < to; ++i) {
+            h = 31 * h + input.get(i);
+        }
+        int slot = slot(h);
+        String s = SLOTS[slot];
+        if (s != null && s.length() == length) {
+            int i = 0;
+            while (i < length && s.charAt(i) == input.get(from + i)) {
+                ++i;
+            }
+            if (i == length) {
+                return s;
+            }
+        }
+        s = Utf8JSONParser.latin1String(input, from, to);
+        SLOTS[slot] = s;
+        return s;
+    }
+
+    // The hash is the same as String.hashCode(), spread so that the low
+    // bits depend on all the characters.
+    private static int slot(int h) {
+        return (h ^ h >>> 16) & (SIZE - 1);
+    }
+}
@@ -0,0 +1,199 @@
+package com.yuantj.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+// Splits UTF-8 newline-delimited JSON into lines and parses each line as a
+// JSON value.  Blank lines are skipped.
+//
+// The input is read in blocks, and lines are split by scanning each block
+// for '\n'.  trySplit() only splits the raw lines into batches, so that the
+// lines are parsed by the thread that consumes the batch, that is, in
+// parallel when the stream is parallel.  The spliterator is ORDERED, so
+// that parallel streams still keep the order of the lines unless the stream
+// is made unordered.
+final class JSONLineSpliterator implements Spliterator<JSONElement> {
+    static final int BLOCK_SIZE = 1 << 16;
+    static final int BATCH_UNIT = 1 << 10;
+    static final int MAX_BATCH = 1 << 16;
+
+    private final InputStream in;
+    // Every refill allocates a new block, because the lines of the
+    // previous block may still be referenced by a batch.
+    private byte[] block = new byte[0];
+    private int pos = 0;
+    private int limit = 0;
+    // Bytes before this index after pos are known to contain no '\n'.
+    private int scan = 0;
+    private boolean eof = false;
+    private long lineNumber = 0;
+    private int batch = 0;
+
+    // The last line found by nextLine().
+    private byte[] lineBlock;
+    private int lineStart;
+    private int lineEnd;
+
+    JSONLineSpliterator(InputStream in) {
+        this.in = in;
+    }
+
+    // Finds the next non-blank line.
+    private boolean nextLine() {
+        while (true) {
+            int i = Math.max(scan, pos);
+            while (i < limit && block[i] != '\n') {
+                i++;
+            }
+            if (i < limit || eof && pos < limit) {
+                lineBlock = block;
+                lineStart = pos;
+                lineEnd = i;
+                lineNumber++;
+                pos = Math.min(i + 1, limit);
+                if (!isBlank(lineBlock, lineStart, lineEnd)) {
+                    return true;
+                }
+                continue;
+            }
+            if (eof) {
+                return false;
+            }
+            scan = fill();
+        }
+    }
+
+    // Reads the next block, keeping the unfinished line at its start.
+    // Returns the index up to which the block has already been scanned.
+    private int fill() {
+        int remaining = limit - pos;
+        var next = new byte[Math.max(BLOCK_SIZE, remaining * 2)];
+        System.arraycopy(block, pos, next, 0, remaining);
+        block = next;
+        pos = 0;
+        limit = remaining;
+        int r;
+        try {
+            r = in.read(next, remaining, next.length - remaining);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (r < 0) {
+            eof = true;
+        } else {
+            limit += r;
+        }
+        return remaining;
+    }
+
+    private static boolean isBlank(byte[] b, int start, int end) {
+        for (int i = start; i < end; ++i) {
+            if (!JSONParser.isLatin1WhiteSpace((char)(b[i] & 0xFF))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Offsets of errors are relative to the start of the line.
+    static JSONElement parseLine(byte[] b, int start, int end, long lineNumber) {
+        return new Utf8JSONParser(ByteBuffer.wrap(b, start, end - start), -start, lineNumber, 0).parse();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super JSONElement> action) {
+        if (!nextLine()) {
+            return false;
+        }
+        action.accept(parseLine(lineBlock, lineStart, lineEnd, lineNumber));
+        return true;
+    }
+
+    @Override
+    public Spliterator<JSONElement> trySplit() {
+        int n = Math.min(batch + BATCH_UNIT, MAX_BATCH);
+        var blocks = new byte[n][];
+        var starts = new int[n];
+        var ends = new int[n];
+        var numbers = new long[n];
+        int count = 0;
+        while (count < n && nextLine()) {
+            blocks[count] = lineBlock;
+            starts[count] = lineStart;
+            ends[count] = lineEnd;
+            numbers[count] = lineNumber;
+            count++;
+        }
+        if (count == 0) {
+            return null;
+        }
+        batch = count;
+        return new Batch(blocks, starts, ends, numbers, 0, count);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    // Raw lines split off by trySplit(), parsed when they are consumed.
+    private static final class Batch implements Spliterator<JSONElement> {
+        private final byte[][] blocks;
+        private final int[] starts;
+        private final int[] ends;
+        private final long[] numbers;
+        private int index;
+        private final int fence;
+
+        Batch(byte[][] blocks, int[] starts, int[] ends, long[] numbers, int index, int fence) {
+            this.blocks = blocks;
+            this.starts = starts;
+            this.ends = ends;
+            this.numbers = numbers;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super JSONElement> action) {
+            if (index >= fence) {
+                return false;
+            }
+            int i = index++;
+            JSONElement e = parseLine(blocks[i], starts[i], ends[i], numbers[i]);
+            blocks[i] = null;
+            action.accept(e);
+            return true;
+        }
+
+        @Override
+        public Spliterator<JSONElement> trySplit() {
+            int middle = (index + fence) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            var prefix = new Batch(blocks, starts, ends, numbers, index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | SIZED | SUBSIZED;
+        }
+    }
+}
@@ -1,24 +1,61 @@
 package com.yuantj.json;
 
-import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Objects;
 
 /**
- * This class represents a JSON number.  This class uses a {@link BigDecimal}
- * to store a number.
+ * This class represents a JSON number.  The value of a number is a
+ * {@link BigDecimal}, but to save time and memory, integers are stored as a
+ * {@code long}, numbers created by {@link #of(double)} are stored as a
+ * {@code double}, and other parsed numbers are stored as their digits.  The
+ * {@code BigDecimal} is only created when it is needed.
+ *
+ * The integers from -128 to 1023 and the numbers with one digit after the
+ * point from -9.9 to 9.9 are cached, so that the parsers and the factory
+ * methods return the same instance for each of them.
  *
  * @author yuantj
  * @version 1.0
  */
 public final class JSONNumber extends JSONElement {
-    final BigDecimal value;
+    // An integer with a zero scale, bits is the value.
+    private static final byte LONG = 0;
+    // A number created from a double, bits is the raw bits of the double,
+    // the value is BigDecimal.valueOf(double).
+    private static final byte DOUBLE = 1;
+    // A number stored as its digits or as a BigDecimal.
+    private static final byte DECIMAL = 2;
+
+    private final byte kind;
+    private final long bits;
+    private final String digits;
+    // Created lazily, races are benign since BigDecimal is immutable.
+    private BigDecimal decimal;
 
-    private JSONNumber(BigDecimal value) {
+    private JSONNumber(byte kind, long bits, String digits, BigDecimal decimal) {
         super(JSONType.NUMBER);
-        assert value != null;
-        this.value = value;
+        this.kind = kind;
+        this.bits = bits;
+        this.digits = digits;
+        this.decimal = decimal;
+    }
+
+    // Canonical instances shared like JSONBoolean.TRUE, since status codes,
+    // counters and flags are mostly small integers.  TENTHS[k + 99] is the
+    // number k / 10.0, stored as a double.
+    private static final int SMALL_MIN = -128;
+    private static final int SMALL_MAX = 1023;
+    private static final JSONNumber[] SMALL = new JSONNumber[SMALL_MAX - SMALL_MIN + 1];
+    private static final JSONNumber[] TENTHS = new JSONNumber[199];
+
+    static {
+        for (int i = 0; i < SMALL.length; ++i) {
+            SMALL[i] = new JSONNumber(LONG, i + SMALL_MIN, null, null);
+        }
+        for (int i = 0; i < TENTHS.length; ++i) {
+            TENTHS[i] = new JSONNumber(DOUBLE, Double.doubleToRawLongBits((i - 99) / 10.0), null, null);
+        }
     }
 
     /**
@@ -48,19 +85,19 @@ public final class JSONNumber extends JSONElement {
     public static JSONNumber of(Number value) {
         Objects.requireNonNull(value);
         if (value instanceof BigDecimal) {
-            return new JSONNumber(safeBigDecimal((BigDecimal)value));
+            return of(safeBigDecimal((BigDecimal)value));
         } else if (value instanceof Integer || value instanceof Long ||
                 value instanceof Byte || value instanceof Short) {
-            return new JSONNumber(BigDecimal.valueOf(value.longValue()));
+            return of(value.longValue());
         } else if (value instanceof BigInteger) {
-            return new JSONNumber(new BigDecimal((BigInteger)value));
+            return of(new BigDecimal((BigInteger)value));
         } else if (value instanceof Float || value instanceof Double) {
-            return new JSONNumber(BigDecimal.valueOf(value.doubleValue()));
+            return of(value.doubleValue());
         } else {
             try {
-                return new JSONNumber(new BigDecimal(value.toString()));
+                return of(new BigDecimal(value.toString()));
             } catch (NumberFormatException e) {
-                return new JSONNumber(BigDecimal.valueOf(value.doubleValue()));
+                return of(value.doubleValue());
             }
         }
     }
@@ -73,6 +110,28 @@ public final class JSONNumber extends JSONElement {
         }
     }
 
+    private static JSONNumber of(BigDecimal value) {
+        if (value.scale() == 0 && value.unscaledValue().bitLength() < 64) {
+            long l = value.longValue();
+            return l >= SMALL_MIN && l <= SMALL_MAX
+                    ? SMALL[(int)l - SMALL_MIN]
+                    : new JSONNumber(LONG, l, null, value);
+        }
+        return new JSONNumber(DECIMAL, 0L, null, value);
+    }
+
+    // Returns a JSON number of the digits of a number which is known to
+    // be valid, the BigDecimal is created lazily.
+    static JSONNumber ofDigits(String digits) {
+        return new JSONNumber(DECIMAL, 0L, digits, null);
+    }
+
+    // Returns the number tenths / 10, which is equal to the number of the
+    // digits "d.d" or "-d.d".  The tenths must be in [-99, 99].
+    static JSONNumber ofTenths(int tenths) {
+        return TENTHS[tenths + 99];
+    }
+
     /**
      * Returns a JSON number with a zero scale representing the specified number.
      *
@@ -80,7 +139,10 @@ public final class JSONNumber extends JSONElement {
      * @return The JSON number representing the specified number.
      */
     public static JSONNumber of(long value) {
-        return new JSONNumber(BigDecimal.valueOf(value));
+        if (value >= SMALL_MIN && value <= SMALL_MAX) {
+            return SMALL[(int)value - SMALL_MIN];
+        }
+        return new JSONNumber(LONG, value, null, null);
     }
 
     /**
@@ -93,7 +155,92 @@ public final class JSONNumber extends JSONElement {
      * @throws NumberFormatException if the number is {@code Infinity} or {@code NaN}.
      */
     public static JSONNumber of(double value) {
-        return new JSONNumber(BigDecimal.valueOf(value));
+        if (!Double.isFinite(value)) {
+            throw new NumberFormatException("Infinite or NaN");
+        }
+        // -0.0 may be mapped to 0.0, which behaves the same.
+        double tenths = value * 10;
+        if (tenths >= -99 && tenths <= 99 && tenths == (int)tenths && (int)tenths / 10.0 == value) {
+            return TENTHS[(int)tenths + 99];
+        }
+        return new JSONNumber(DOUBLE, Double.doubleToRawLongBits(value), null, null);
+    }
+
+    private double doubleBits() {
+        return Double.longBitsToDouble(bits);
+    }
+
+    // Returns true if casting the double truncates it like BigDecimal does.
+    // Larger doubles are not exact integers after BigDecimal.valueOf(double).
+    private boolean isSmallDouble() {
+        double d = doubleBits();
+        return d > -0x1p53 && d < 0x1p53;
+    }
+
+    // Returns true if this number is stored as a long, so that it is equal
+    // to of(getLong()).
+    boolean isLongBits() {
+        return kind == LONG;
+    }
+
+    // Returns the double d such that this number is equal to of(d), or NaN
+    // if there is none.  Parsed digits have one when Double.toString gives
+    // them back, since both numbers then have the same BigDecimal.
+    double exactDouble() {
+        switch (kind) {
+            case DOUBLE:
+                return doubleBits() + 0.0;
+            case DECIMAL:
+                if (digits != null) {
+                    double d = Double.parseDouble(digits);
+                    if (Double.toString(d).equals(digits)) {
+                        return d + 0.0;
+                    }
+                }
+                return Double.NaN;
+            default:
+                return Double.NaN;
+        }
+    }
+
+    // Returns true if this number is an integer without fraction or exponent
+    // that fits into a long.
+    boolean isLong() {
+        switch (kind) {
+            case LONG:
+                return true;
+            case DOUBLE:
+                // Double.toString always contains '.' or 'E'.
+                return false;
+            default:
+                BigDecimal value = getDecimal();
+                return value.scale() == 0 && value.unscaledValue().bitLength() < 64;
+        }
+    }
+
+    // Returns this number if it is an integer in [min, max], like
+    // BigDecimal.longValueExact(), otherwise throws a
+    // JSONTypeMismatchException naming the type it is converted to.
+    long getLongExact(long min, long max, String type) {
+        long value;
+        if (kind == LONG) {
+            value = bits;
+        } else {
+            try {
+                value = getDecimal().longValueExact();
+            } catch (ArithmeticException e) {
+                throw cannotConvert(type);
+            }
+        }
+        if (value < min || value > max) {
+            throw cannotConvert(type);
+        }
+        return value;
+    }
+
+    JSONTypeMismatchException cannotConvert(String type) {
+        return new JSONTypeMismatchException(String.format("number %s cannot be converted to %s", toJSON(false), type),
+                JSONType.NUMBER, JSONType.NUMBER);
     }
 
     /**
@@ -103,7 +250,7 @@ public final class JSONNumber extends JSONElement {
      */
     @Override
     public BigDecimal toRawObject() {
-        return value;
+        return getDecimal();
     }
 
     /**
@@ -113,6 +260,21 @@ public final class JSONNumber extends JSONElement {
      */
     @Override
     public BigDecimal getDecimal() {
+        BigDecimal value = decimal;
+        if (value == null) {
+            switch (kind) {
+                case LONG:
+                    value = BigDecimal.valueOf(bits);
+                    break;
+                case DOUBLE:
+                    value = BigDecimal.valueOf(doubleBits());
+                    break;
+                default:
+                    value = new BigDecimal(digits);
+                    break;
+            }
+            decimal = value;
+        }
         return value;
     }
 
@@ -124,7 +286,12 @@ public final class JSONNumber extends JSONElement {
      */
     @Override
     public int getInt() {
-        return value.intValue();
+        if (kind == LONG) {
+            return (int)bits;
+        } else if (kind == DOUBLE && isSmallDouble()) {
+            return (int)(long)doubleBits();
+        }
+        return getDecimal().intValue();
     }
 
     /**
@@ -135,7 +302,12 @@ public final class JSONNumber extends JSONElement {
      */
     @Override
     public long getLong() {
-        return value.longValue();
+        if (kind == LONG) {
+            return bits;
+        } else if (kind == DOUBLE && isSmallDouble()) {
+            return (long)doubleBits();
+        }
+        return getDecimal().longValue();
     }
 
     /**
@@ -146,17 +318,48 @@ public final class JSONNumber extends JSONElement {
      */
     @Override
     public double getDouble() {
-        return value.doubleValue();
+        switch (kind) {
+            case LONG:
+                return bits;
+            case DOUBLE:
+                // Adding 0.0 turns -0.0 into 0.0 like BigDecimal.
+                return doubleBits() + 0.0;
+            default:
+                // Both conversions are correctly rounded, but only BigDecimal
+                // knows the sign of a zero.
+                if (digits != null) {
+                    double d = Double.parseDouble(digits);
+                    if (d != 0.0) {
+                        return d;
+                    }
+                }
+                return getDecimal().doubleValue();
+        }
     }
 
     @Override
     String toJSON(boolean ascii) {
-        return value.toString();
+        switch (kind) {
+            case LONG:
+                return Long.toString(bits);
+            case DOUBLE:
+                double d = doubleBits();
+                if (d == 0.0) {
+                    // BigDecimal has no negative zero.
+                    return "0.0";
+                }
+                // Double.toString is what BigDecimal.valueOf(double) parses,
+                // the BigDecimal only formats it differently with an exponent.
+                String s = Double.toString(d);
+                return s.indexOf('E') < 0 ? s : getDecimal().toString();
+            default:
+                return getDecimal().toString();
+        }
     }
 
     @Override
     String toJSON(int indent, boolean ascii) {
-        return value.toString();
+        return toJSON(ascii);
     }
 
     /**
@@ -169,7 +372,16 @@ public final class JSONNumber extends JSONElement {
      */
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof JSONNumber n && n.value.equals(value);
+        if (!(obj instanceof JSONNumber n)) {
+            return false;
+        } else if (kind == LONG && n.kind == LONG) {
+            return bits == n.bits;
+        } else if (kind == DOUBLE && n.kind == DOUBLE) {
+            // BigDecimal.valueOf(double) is injective on finite doubles,
+            // except that both zeros are mapped to 0.0.
+            return doubleBits() == n.doubleBits();
+        }
+        return n.getDecimal().equals(getDecimal());
     }
 
     /**
@@ -179,6 +391,13 @@ public final class JSONNumber extends JSONElement {
      */
     @Override
     public int hashCode() {
-        return value.hashCode();
+        if (kind == LONG) {
+            // Same as BigDecimal.valueOf(bits).hashCode(), that is, the hash
+            // code of the BigInteger value with a zero scale.
+            long magnitude = Math.abs(bits);
+            int h = (int)(magnitude >>> 32) * 31 + (int)magnitude;
+            return 31 * (bits < 0 ? -h : h);
+        }
+        return getDecimal().hashCode();
     }
 }
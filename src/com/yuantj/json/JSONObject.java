@@ -2,6 +2,7 @@ package com.yuantj.json;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
 import static com.yuantj.json.JSONString.rawStringToJSON;
@@ -9,15 +10,29 @@ import static com.yuantj.json.JSONString.rawStringToJSON;
 /**
  * This class represents a JSON object.
  *
+ * The keys and values of an object are stored in two arrays in document
+ * order.  Keys are searched linearly in small objects, and through a hash
+ * index in objects with more than a few fields.  The parsers share the
+ * array of keys and its index between the objects of an array which have
+ * the same keys in the same order.  {@link #getMap()} returns a read-only
+ * view of these arrays.
+ *
  * @author yuantj
  * @version 1.0
  */
 public final class JSONObject extends JSONElement {
-    final Map<String, JSONElement> values;
+    private static final JSONElement[] NO_VALUES = {};
+    private static final JSONObject EMPTY = new JSONObject(JSONShape.EMPTY, NO_VALUES);
+
+    // The keys, which may be shared with other objects, and the value of
+    // each key at its position.
+    private final JSONShape shape;
+    private final JSONElement[] values;
 
-    private JSONObject(Map<String, JSONElement> values) {
+    private JSONObject(JSONShape shape, JSONElement[] values) {
         super(JSONType.OBJECT);
-        assert values != null;
+        assert shape.size() == values.length;
+        this.shape = shape;
         this.values = values;
     }
 
@@ -36,13 +51,114 @@ public final class JSONObject extends JSONElement {
      * @throws NullPointerException If {@code values} is {@code null}.
      */
     public static JSONObject of(Map<?, ?> values) {
-        var m = new LinkedHashMap<String, JSONElement>();
-        values.forEach((k, v) -> m.put(String.valueOf(k), JSONElement.of(v)));
-        return new JSONObject(Collections.unmodifiableMap(m));
+        var builder = new Builder();
+        values.forEach((k, v) -> builder.put(String.valueOf(k), JSONElement.of(v)));
+        return builder.build();
+    }
+
+    // Collects the fields of an object.  Like Map.put(), a duplicate key
+    // replaces the value of the field at its first position.
+    //
+    // A builder keeps no keys of its own as long as the keys put are those
+    // of its shape in order, so that an object with the same keys as the
+    // shape shares it.
+    static final class Builder {
+        private final JSONShape shape;
+        // The keys put, or null while they are a prefix of the shape.
+        private String[] keys;
+        private JSONElement[] values;
+        // The index of the keys if there are more than INDEX_MIN_SIZE.
+        private int[] index;
+        private int size;
+
+        Builder() {
+            this(JSONShape.EMPTY);
+        }
+
+        Builder(JSONShape shape) {
+            this.shape = shape;
+            values = shape.size() == 0 ? NO_VALUES : new JSONElement[shape.size()];
+        }
+
+        void put(String key, JSONElement value) {
+            if (keys == null) {
+                if (size < shape.keys.length && shape.keys[size].equals(key)) {
+                    values[size++] = value;
+                    return;
+                }
+                detach();
+            }
+            int i = JSONShape.find(keys, index, size, key);
+            if (i >= 0) {
+                values[i] = value;
+                return;
+            }
+            if (size == keys.length) {
+                int capacity = Math.max(4, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            keys[size] = key;
+            values[size++] = value;
+            if (size > JSONShape.INDEX_MIN_SIZE) {
+                if (index == null || size * 2 > index.length) {
+                    index = JSONShape.newIndex(keys, size);
+                } else {
+                    JSONShape.insert(index, key, size - 1);
+                }
+            }
+        }
+
+        void remove(String key) {
+            if (keys == null) {
+                detach();
+            }
+            int i = JSONShape.find(keys, index, size, key);
+            if (i >= 0) {
+                --size;
+                System.arraycopy(keys, i + 1, keys, i, size - i);
+                System.arraycopy(values, i + 1, values, i, size - i);
+                keys[size] = null;
+                values[size] = null;
+                index = size > JSONShape.INDEX_MIN_SIZE ? JSONShape.newIndex(keys, size) : null;
+            }
+        }
+
+        // Copies the keys put from the shape, to put other keys.
+        private void detach() {
+            keys = Arrays.copyOf(shape.keys, values.length);
+            Arrays.fill(keys, size, keys.length, null);
+            if (size > JSONShape.INDEX_MIN_SIZE) {
+                index = JSONShape.newIndex(keys, size);
+            }
+        }
+
+        JSONObject build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            if (keys == null && size == shape.size()) {
+                return new JSONObject(shape, values);
+            }
+            if (keys == null) {
+                detach();
+            }
+            if (size < keys.length) {
+                keys = Arrays.copyOf(keys, size);
+                values = Arrays.copyOf(values, size);
+            }
+            return new JSONObject(new JSONShape(keys, index), values);
+        }
+    }
+
+    JSONShape shape() {
+        return shape;
     }
 
-    static JSONObject ofTrustedMap(Map<String, JSONElement> values) {
-        return new JSONObject(values);
+    // Returns the value of the key, or null if it is not present.
+    private JSONElement find(String key) {
+        int i = shape.find(key);
+        return i < 0 ? null : values[i];
     }
 
     /**
@@ -52,7 +168,11 @@ public final class JSONObject extends JSONElement {
      */
     @Override
     public Map<String, ?> toRawObject() {
-        return toRawObject(values);
+        var m = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < values.length; ++i) {
+            m.put(shape.keys[i], values[i].toRawObject());
+        }
+        return Collections.unmodifiableMap(m);
     }
 
     static Map<String, ?> toRawObject(Map<String, ? extends JSONAccessor> values) {
@@ -63,21 +183,16 @@ public final class JSONObject extends JSONElement {
 
     @Override
     Appendable appendJSON(Appendable appendable, boolean ascii) throws IOException {
-        var i = values.entrySet().iterator();
-        if (!i.hasNext()) {
+        if (values.length == 0) {
             return appendable.append("{}");
         }
-        appendable.append('{');
-        while (true) {
-            var e = i.next();
-            rawStringToJSON(e.getKey(), appendable, ascii);
+        for (int i = 0; i < values.length; ++i) {
+            appendable.append(i == 0 ? '{' : ',');
+            rawStringToJSON(shape.keys[i], appendable, ascii);
             appendable.append(':');
-            e.getValue().appendJSON(appendable, ascii);
-            if (!i.hasNext()) {
-                return appendable.append('}');
-            }
-            appendable.append(',');
+            values[i].appendJSON(appendable, ascii);
         }
+        return appendable.append('}');
     }
 
     static String toJSON(Map<String, ? extends JSONAccessor> map, boolean ascii) {
@@ -89,25 +204,23 @@ public final class JSONObject extends JSONElement {
 
     @Override
     Appendable append(Appendable appendable, int indent, int prefixBlanks, boolean ascii) throws IOException {
-        var i = values.entrySet().iterator();
-        if (!i.hasNext()) {
+        if (values.length == 0) {
             return appendable.append("{}");
         }
         String pre = " ".repeat(prefixBlanks);
         String ind = " ".repeat(indent);
         appendable.append("{").append(LINE_SEPARATOR).append(pre);
         int newPrefixBlanks = prefixBlanks + indent;
-        while (true) {
-            var e = i.next();
+        for (int i = 0; i < values.length; ++i) {
+            if (i > 0) {
+                appendable.append(",").append(LINE_SEPARATOR).append(pre);
+            }
             appendable.append(ind);
-            rawStringToJSON(e.getKey(), appendable, ascii);
+            rawStringToJSON(shape.keys[i], appendable, ascii);
             appendable.append(": ");
-            e.getValue().append(appendable, indent, newPrefixBlanks, ascii);
-            if (!i.hasNext()) {
-                return appendable.append(LINE_SEPARATOR).append(pre).append("}");
-            }
-            appendable.append(",").append(LINE_SEPARATOR).append(pre);
+            values[i].append(appendable, indent, newPrefixBlanks, ascii);
         }
+        return appendable.append(LINE_SEPARATOR).append(pre).append("}");
     }
 
     /**
@@ -143,17 +256,18 @@ public final class JSONObject extends JSONElement {
      */
     @Override
     public Optional<JSONElement> getOptional(String key) {
-        return Optional.ofNullable(values.get(Objects.requireNonNull(key)));
+        return Optional.ofNullable(find(Objects.requireNonNull(key)));
     }
 
     /**
-     * Returns an immutable map of JSON keys and values.
+     * Returns an immutable map of JSON keys and values.  The map is a view
+     * of this object, iterated in document order.
      *
      * @return A map of JSON keys and values if this node is an object.
      */
     @Override
     public Map<String, ? extends JSONElement> getMap() {
-        return values;
+        return new FieldMap();
     }
 
     /**
@@ -163,7 +277,7 @@ public final class JSONObject extends JSONElement {
      */
     @Override
     public int size() {
-        return values.size();
+        return values.length;
     }
 
     /**
@@ -175,7 +289,21 @@ public final class JSONObject extends JSONElement {
      */
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof JSONObject o && o.values.equals(values);
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof JSONObject o) || o.values.length != values.length) {
+            return false;
+        }
+        if (o.shape == shape) {
+            return Arrays.equals(o.values, values);
+        }
+        for (int i = 0; i < values.length; ++i) {
+            if (!values[i].equals(o.find(shape.keys[i]))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -186,6 +314,65 @@ public final class JSONObject extends JSONElement {
      */
     @Override
     public int hashCode() {
-        return values.hashCode();
+        int h = 0;
+        for (int i = 0; i < values.length; ++i) {
+            h += shape.keys[i].hashCode() ^ values[i].hashCode();
+        }
+        return h;
+    }
+
+    private final class FieldMap extends AbstractMap<String, JSONElement> {
+        @Override
+        public JSONElement get(Object key) {
+            return key instanceof String s ? find(s) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super String, ? super JSONElement> action) {
+            for (int i = 0; i < values.length; ++i) {
+                action.accept(shape.keys[i], values[i]);
+            }
+        }
+
+        @Override
+        public Set<Entry<String, JSONElement>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, JSONElement>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < values.length;
+                        }
+
+                        @Override
+                        public Entry<String, JSONElement> next() {
+                            if (next >= values.length) {
+                                throw new NoSuchElementException();
+                            }
+                            int i = next++;
+                            return Map.entry(shape.keys[i], values[i]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return values.length;
+                }
+            };
+        }
     }
 }
@@ -4,15 +4,27 @@ package com.yuantj.json;
  * Thrown when the parser try to parse an invalid JSON string, for example,
  * syntax error.
  *
+ * Exceptions thrown by the parser carry the position of the error: its offset
+ * in the input, counted in chars, or in bytes for UTF-8 encoded input, its line
+ * and column, both starting at 1, and a short part of the input around it.
+ * The detail message is only built when it is requested.
+ *
  * @author yuantj
  * @version 1.0
  */
 public class JSONParseException extends IllegalArgumentException {
+    private final String reason;
+    private final long offset;
+    private final long line;
+    private final long column;
+    private final String context;
+    private String message;
+
     /**
      * Constructs a {@code JSONParseException} with no detail message.
      */
     public JSONParseException() {
-        super();
+        this(null, -1, -1, -1, null);
     }
 
     /**
@@ -21,6 +33,77 @@ public class JSONParseException extends IllegalArgumentException {
      * @param s The detail message.
      */
     public JSONParseException(String s) {
-        super(s);
+        this(s, -1, -1, -1, null);
+    }
+
+    JSONParseException(String reason, long offset, long line, long column, String context) {
+        super();
+        this.reason = reason;
+        this.offset = offset;
+        this.line = line;
+        this.column = column;
+        this.context = context;
+    }
+
+    /**
+     * Returns the description of the error, without its position.
+     *
+     * @return The description of the error, or {@code null} if there is none.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * Returns the offset of the error in the input.
+     *
+     * @return The offset of the error, or {@code -1} if it is unknown.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the line of the error, starting at 1.  Lines are terminated
+     * by {@code '\n'}.
+     *
+     * @return The line of the error, or {@code -1} if it is unknown.
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * Returns the column of the error in its line, starting at 1.
+     *
+     * @return The column of the error, or {@code -1} if it is unknown.
+     */
+    public long getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns a short part of the input around the error.
+     *
+     * @return The input around the error, or {@code null} if it is unknown.
+     */
+    public String getContext() {
+        return context;
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null && offset >= 0) {
+            var sb = new StringBuilder();
+            sb.append('[').append(offset).append("]: ").append(reason);
+            if (line > 0) {
+                sb.append(" (line ").append(line).append(", column ").append(column).append(')');
+            }
+            if (context != null) {
+                sb.append(" : ").append(JSONString.rawStringToJSON(context, false));
+            }
+            message = sb.toString();
+        }
+        return offset >= 0 ? message : reason;
     }
 }
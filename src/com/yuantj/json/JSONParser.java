@@ -2,165 +2,366 @@ package com.yuantj.json;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
 
 // This implementation is referred from openjdk.
 abstract class JSONParser {
     JSONParser() {}
 
     JSONElement parse() {
-        JSONElement e = parseElement();
-        if (hasInput()) {
-            throw exception("can only have one top-level JSON value");
-        }
+        return parseAfter(null);
+    }
+
+    // Parses the input like parse(), as the element of an array following
+    // the previous one, which may be null.
+    JSONElement parseAfter(JSONElement previous) {
+        JSONElement e = parseElement(previous);
+        expectEnd();
         return e;
     }
 
     JSONElement parseElement() {
-        JSONElement result = null;
-        consumeWhitespace();
-        if (hasInput()) {
-            char c = current();
-            JSONType possibleType = possibleStartType(c);
-            if (possibleType == null) {
+        return parseElement(null);
+    }
+
+    // Parses a single value, surrounded by optional whitespace.  An object
+    // at the top level starts with the shape of the previous element, if it
+    // is an object.
+    JSONElement parseElement(JSONElement previous) {
+        var tree = new JSONSink.ToTree(previous);
+        parse(tree, JSONProjection.Node.ALL);
+        return tree.result();
+    }
+
+    // Parses a single value, surrounded by optional whitespace, and reports
+    // it to the sink.  Nesting is tracked with an explicit stack instead of
+    // recursion, so that deeply nested documents only fail when they exceed
+    // MAX_DEPTH.
+    //
+    // The node selects the value, and its children the members of the value.
+    // Values which are not selected, and values on a selected path that are
+    // not containers, are skipped by skipValue() instead of being reported.
+    void parse(JSONSink sink, JSONProjection.Node root) {
+        boolean[] objects = new boolean[16];
+        // nodes[k] selects the members of the container at depth k, and
+        // indexes[k] is the index of its next member if it is an array.
+        JSONProjection.Node[] nodes = new JSONProjection.Node[16];
+        int[] indexes = new int[16];
+        int depth = 0;
+        // The node of the value expected next, null if it is not selected.
+        JSONProjection.Node node = root;
+        while (true) {
+            // A value is expected here.
+            consumeWhitespace();
+            if (!hasInput()) {
+                throw exception("no valid JSON found");
+            }
+            JSONType possibleType = possibleStartType(current());
+            boolean container = possibleType == JSONType.OBJECT || possibleType == JSONType.ARRAY;
+            boolean opened = false;
+            if (node == null || !container && !node.selectsAll()) {
+                skipValue();
+                sink.skipped(node != null);
+            } else if (possibleType == null) {
                 throw exception("not a valid start of a JSON value");
+            } else if (container) {
+                boolean object = possibleType == JSONType.OBJECT;
+                long position = position();
+                advance(); // step beyond opening '{' or '['
+                consumeWhitespace();
+                expectMoreInput(object ? OBJECT_ERROR : ARRAY_ERROR);
+                checkDepth(depth);
+                if (depth == objects.length) {
+                    objects = Arrays.copyOf(objects, depth * 2);
+                    nodes = Arrays.copyOf(nodes, depth * 2);
+                    indexes = Arrays.copyOf(indexes, depth * 2);
+                }
+                objects[depth] = object;
+                nodes[depth] = node;
+                indexes[depth++] = 0;
+                sink.startContainer(object, position);
+                opened = true;
+            } else {
+                sink.scalar(this, possibleType);
             }
-            switch (possibleType) {
-                case OBJECT:
-                    result = parseObject();
-                    break;
-                case ARRAY:
-                    result = parseArray();
-                    break;
-                case STRING:
-                    result = parseString();
-                    break;
-                case BOOLEAN:
-                    result = parseBoolean();
-                    break;
-                case NUMBER:
-                    result = parseNumber();
-                    break;
-                case NULL:
-                    result = parseNull();
-                    break;
-                default:
-                    throw new AssertionError(possibleType);
+            if (!opened) {
+                consumeWhitespace();
+            }
+            // Close finished containers until the next value is found.
+            while (true) {
+                if (depth == 0) {
+                    return;
+                }
+                boolean object = objects[depth - 1];
+                if (!opened) {
+                    skipSeparator(object);
+                }
+                opened = false;
+                if (current() == (object ? '}' : ']')) {
+                    advance();
+                    depth--;
+                    consumeWhitespace();
+                    sink.endContainer(object);
+                    continue;
+                }
+                JSONProjection.Node parent = nodes[depth - 1];
+                if (object) {
+                    expectFieldName();
+                    String name = sink.field(this);
+                    expectColon();
+                    node = parent.selectsAll() ? parent : parent.child(name);
+                } else {
+                    node = parent.selectsAll() ? parent : parent.child(indexes[depth - 1]++);
+                }
+                break;
             }
         }
-        consumeWhitespace();
-        if (result == null) {
-            throw exception("no valid JSON found");
-        }
-        return result;
     }
 
-    JSONObject parseObject() {
-        String error = "object is not terminated with '}'";
-        var map = new LinkedHashMap<String, JSONElement>();
-
-        advance(); // step beyond opening '{'
-        consumeWhitespace();
-        expectMoreInput(error);
+    // Checks that nothing but whitespace follows the top-level value.
+    void expectEnd() {
+        if (hasInput()) {
+            throw exception("can only have one top-level JSON value");
+        }
+    }
 
-        while (current() != '}') {
-            JSONElement key = parseElement();
-            if (!(key instanceof JSONString)) {
-                throw exception("a field must of type string");
-            }
+    // Returns the builder of an object opened in the container, or at the
+    // top level if it is null.  An object in an array starts with the shape
+    // of the previous element, so that arrays of records share their keys.
+    static JSONObject.Builder newObject(Object container) {
+        if (container instanceof ArrayList<?> list && !list.isEmpty()) {
+            return newObjectAfter((JSONElement)list.get(list.size() - 1));
+        }
+        return new JSONObject.Builder();
+    }
 
-            if (!hasInput() || current() != ':') {
-                throw exception("a field must be followed by ':'");
-            }
-            advance(); // skip ':'
+    // Returns the builder of an object following the previous element of
+    // an array, which may be null.
+    static JSONObject.Builder newObjectAfter(JSONElement previous) {
+        if (previous instanceof JSONObject o) {
+            return new JSONObject.Builder(o.shape());
+        }
+        return new JSONObject.Builder();
+    }
 
-            JSONElement val = parseElement();
-            map.put(((JSONString)key).toRawObject(), val);
+    // Maximum nesting depth of objects and arrays.  The parsers do not
+    // recurse, so that the limit is not bound to the size of the stack.
+    static final int MAX_DEPTH = Integer.getInteger("com.yuantj.json.maxDepth", 1 << 16);
 
-            expectMoreInput(error);
-            if (current() == ',') {
-                advance();
-            }
-            expectMoreInput(error);
+    // Checks that a container can be opened inside depth open containers.
+    void checkDepth(int depth) {
+        if (depth >= MAX_DEPTH) {
+            throw exception("nesting depth exceeds " + MAX_DEPTH);
         }
-
-        advance(); // step beyond '}'
-        return JSONObject.ofTrustedMap(Collections.unmodifiableMap(map));
     }
 
-    JSONArray parseArray() {
-        String error = "array is not terminated with ']'";
-        var list = new ArrayList<JSONElement>();
-
-        advance(); // step beyond opening '['
+    // Skips whitespace and checks that a field name starts here.  Errors
+    // are the same as if a value were parsed instead.
+    void expectFieldName() {
         consumeWhitespace();
-        expectMoreInput(error);
+        if (!hasInput()) {
+            throw exception("no valid JSON found");
+        }
+        if (current() != '"') {
+            throw exception(possibleStartType(current()) == null
+                    ? "not a valid start of a JSON value"
+                    : "a field must of type string");
+        }
+    }
 
-        while (current() != ']') {
-            JSONElement val = parseElement();
-            list.add(val);
+    JSONString parseString() {
+        return JSONString.of(parseRawString());
+    }
 
-            expectMoreInput(error);
-            if (current() == ',') {
-                advance();
-            }
-            expectMoreInput(error);
+    // Parses a string starting at the opening '"' and returns its
+    // unescaped content.
+    String parseRawString() {
+        String plain = parsePlainString();
+        if (plain != null) {
+            return plain;
         }
-        advance(); // step beyond closing ']'
-        return JSONArray.ofTrustedArray(list.toArray(new JSONElement[0]));
+        var sb = new StringBuilder();
+        parseString(sb);
+        return sb.toString();
     }
 
-    JSONString parseString() {
+    // Parses a field name starting at the opening '"'.  Subclasses return
+    // short names without escapes from JSONKeyCache, so that repeated
+    // names share one instance.
+    String parseFieldName() {
+        return parseRawString();
+    }
+
+    // Parses a string starting at the opening '"' and appends its
+    // unescaped content to the specified builder.
+    void parseString(StringBuilder sb) {
         String missingEndChar = "string is not terminated with '\"'";
-        var sb = new StringBuilder();
-        for (var c = next(missingEndChar); c != '"'; c = next(missingEndChar)) {
+        advance(); // step beyond opening "
+        while (true) {
+            appendPlainRun(sb);
+            expectMoreInput(missingEndChar);
+            var c = current();
+            if (c == '"') {
+                break;
+            }
             if (c == '\\') {
                 var n = next(missingEndChar);
                 switch (n) {
                     case '"':
-                        sb.append("\"");
+                        sb.append('"');
                         break;
                     case '\\':
-                        sb.append("\\");
+                        sb.append('\\');
                         break;
                     case '/':
-                        sb.append("/");
+                        sb.append('/');
                         break;
                     case 'b':
-                        sb.append("\b");
+                        sb.append('\b');
                         break;
                     case 'f':
-                        sb.append("\f");
+                        sb.append('\f');
                         break;
                     case 'n':
-                        sb.append("\n");
+                        sb.append('\n');
                         break;
                     case 'r':
-                        sb.append("\r");
+                        sb.append('\r');
                         break;
                     case 't':
-                        sb.append("\t");
+                        sb.append('\t');
                         break;
                     case 'u':
-                        var u1 = next(missingEndChar);
-                        var u2 = next(missingEndChar);
-                        var u3 = next(missingEndChar);
-                        var u4 = next(missingEndChar);
-                        var cp = Integer.parseInt(String.format("%c%c%c%c", u1, u2, u3, u4), 16);
-                        sb.append(new String(new int[]{cp}, 0, 1));
+                        // Each escape is a UTF-16 code unit, so the two
+                        // halves of a surrogate pair are appended one by one.
+                        int cp = 0;
+                        for (int i = 0; i < 4; ++i) {
+                            int digit = hexValue(next(missingEndChar));
+                            if (digit < 0) {
+                                throw exception("invalid hexadecimal digit in '\\u' escape");
+                            }
+                            cp = cp << 4 | digit;
+                        }
+                        sb.append((char)cp);
                         break;
                     default:
                         throw exception(String.format("Unexpected escaped character '%c'", n));
                 }
             } else {
-                sb.append(c);
+                appendUnescaped(sb, c);
             }
+            advance();
         }
         advance(); // step beyond closing "
-        return JSONString.of(sb);
     }
 
+    // Parses a string starting at the opening '"' if it can be copied from
+    // the input as it is, that is, it contains no escape sequence and needs
+    // no decoding.  Returns null without consuming anything otherwise.
+    // Subclasses with direct access to their input override this method.
+    String parsePlainString() {
+        return null;
+    }
+
+    // Appends the characters of a string value from the current one up to
+    // the next '"', '\\' or character that needs decoding, and steps beyond
+    // them.  It may stop earlier, the remaining characters are then handled
+    // one by one by parseString.
+    void appendPlainRun(StringBuilder sb) {
+    }
+
+    // Steps beyond the characters of a string value from the current one
+    // up to the next '"', '\\' or character that needs decoding, like
+    // appendPlainRun but without appending them.
+    void skipPlainRun() {
+    }
+
+    // Appends a character of a string value that is not part of an escape
+    // sequence.  Parsers working on encoded input override this method to
+    // decode multi-byte sequences.
+    void appendUnescaped(StringBuilder sb, char c) {
+        sb.append(c);
+    }
+
+    // Parses a single value and reports its events to the handler.  The
+    // same documents as parse() are accepted.
+    void parse(JSONHandler handler) {
+        parse(new JSONSink.ToHandler(handler), JSONProjection.Node.ALL);
+        expectEnd();
+    }
+
+    // Parses a single value, building only the parts selected by the
+    // projection.  Values which are not selected are skipped by skipValue().
+    JSONElement parse(JSONProjection projection) {
+        JSONProjection.Node root = projection.root;
+        consumeWhitespace();
+        if (root.selectsAll() || !hasInput() || current() != '{' && current() != '[') {
+            return parse();
+        }
+        var tree = new JSONSink.ToTree(null);
+        parse(tree, root);
+        expectEnd();
+        return tree.result();
+    }
+
+    // Skips a value without checking it completely.  Only quotes and
+    // brackets are matched to find the end of the value.
+    void skipValue() {
+        char c = current();
+        if (possibleStartType(c) == null) {
+            throw exception("not a valid start of a JSON value");
+        }
+        if (c == '"') {
+            skipString();
+            return;
+        }
+        if (c != '{' && c != '[') {
+            // A number or a literal ends before any structural character.
+            do {
+                advance();
+            } while (hasInput() && !isLatin1WhiteSpace(c = current())
+                    && c != ',' && c != ':' && c != '}' && c != ']'
+                    && c != '{' && c != '[' && c != '"');
+            return;
+        }
+        String error = c == '{' ? OBJECT_ERROR : ARRAY_ERROR;
+        int depth = 0;
+        do {
+            switch (c) {
+                case '"':
+                    skipString();
+                    break;
+                case '{':
+                case '[':
+                    ++depth;
+                    advance();
+                    break;
+                case '}':
+                case ']':
+                    --depth;
+                    advance();
+                    break;
+                default:
+                    advance();
+                    break;
+            }
+            if (depth == 0) {
+                return;
+            }
+            expectMoreInput(error);
+            c = current();
+        } while (true);
+    }
+
+    // Checks a single value like parse(), without creating any element.
+    void validate() {
+        parse(JSONSink.CHECK, JSONProjection.Node.ALL);
+        expectEnd();
+    }
+
+    static final String OBJECT_ERROR = "object is not terminated with '}'";
+    static final String ARRAY_ERROR = "array is not terminated with ']'";
+
     JSONBoolean parseBoolean() {
         if (current() == 't') {
             expect("rue");
@@ -176,24 +377,70 @@ abstract class JSONParser {
     }
 
     JSONNumber parseNumber() {
-        var sb = new StringBuilder();
+        int length = scanNumber();
+        int i = numberBuffer[0] == '-' ? 1 : 0;
+        // At most 18 digits always fit into a long.
+        if (numberIsInteger && length - i <= 18) {
+            long value = 0;
+            for (int j = i; j < length; ++j) {
+                value = value * 10 + (numberBuffer[j] - '0');
+            }
+            return JSONNumber.of(i == 0 ? value : -value);
+        }
+        // The only numbers of 3 digits and a '.' are "d.d", which are cached.
+        if (length - i == 3 && numberBuffer[i + 1] == '.') {
+            int tenths = (numberBuffer[i] - '0') * 10 + (numberBuffer[i + 2] - '0');
+            return JSONNumber.ofTenths(i == 0 ? tenths : -tenths);
+        }
+        checkExponent(length);
+        return JSONNumber.ofDigits(new String(numberBuffer, 0, length));
+    }
+
+    // Checks the exponent of the number of the specified length scanned last.
+    // The BigDecimal of a number is created lazily, so exponents it may
+    // reject are checked when parsing.
+    void checkExponent(int length) {
+        if (numberExponentLength > 9) {
+            try {
+                new BigDecimal(numberBuffer, 0, length);
+            } catch (NumberFormatException e) {
+                throw exception("exponent of a number is out of range");
+            }
+        }
+    }
+
+    // Characters of the last number scanned by scanNumber(), reused across
+    // numbers so that scanning does not allocate.
+    char[] numberBuffer = new char[32];
+    private int numberLength;
+    // Whether the last number scanned has neither a fraction nor an exponent.
+    private boolean numberIsInteger;
+    // Number of digits of the exponent of the last number scanned.
+    private int numberExponentLength;
+
+    // Scans a number, checking its grammar, and copies its characters into
+    // numberBuffer.  Returns the number of characters scanned.
+    int scanNumber() {
+        numberLength = 0;
+        numberIsInteger = true;
+        numberExponentLength = 0;
         if (current() == '-') {
-            sb.append(current());
-            advance();
+            takeNumberChar();
             expectMoreInput("a number cannot consist of only '-'");
+            if (!isLatin1Digit(current())) {
+                throw exception("a digit must follow '-'");
+            }
         }
         if (current() == '0') {
-            sb.append(current());
-            advance();
+            takeNumberChar();
         } else {
             while (hasInput() && isLatin1Digit(current())) {
-                sb.append(current());
-                advance();
+                takeNumberChar();
             }
         }
         if (hasInput() && current() == '.') {
-            sb.append(current());
-            advance();
+            numberIsInteger = false;
+            takeNumberChar();
 
             expectMoreInput("a number cannot end with '.'");
 
@@ -202,30 +449,104 @@ abstract class JSONParser {
             }
 
             while (hasInput() && isLatin1Digit(current())) {
-                sb.append(current());
-                advance();
+                takeNumberChar();
             }
         }
         if (hasInput() && (current() == 'e' || current() == 'E')) {
-            sb.append(current());
-            advance();
+            numberIsInteger = false;
+            takeNumberChar();
             expectMoreInput("a number cannot end with 'e' or 'E'");
 
             if (current() == '+' || current() == '-') {
-                sb.append(current());
-                advance();
+                takeNumberChar();
+                expectMoreInput("a number cannot end with 'e' or 'E'");
             }
 
             if (!isLatin1Digit(current())) {
                 throw exception("a digit must follow {'e','E'}{'+','-'}");
             }
 
+            int exponentStart = numberLength;
             while (hasInput() && isLatin1Digit(current())) {
-                sb.append(current());
-                advance();
+                takeNumberChar();
             }
+            numberExponentLength = numberLength - exponentStart;
+        }
+        return numberLength;
+    }
+
+    private void takeNumberChar() {
+        if (numberLength == numberBuffer.length) {
+            numberBuffer = Arrays.copyOf(numberBuffer, numberLength * 2);
         }
-        return JSONNumber.of(new BigDecimal(sb.toString()));
+        numberBuffer[numberLength++] = current();
+        advance();
+    }
+
+    // Skips a string starting at the opening '"', checking its escape
+    // sequences without unescaping it.
+    void skipString() {
+        String missingEndChar = "string is not terminated with '\"'";
+        advance(); // step beyond opening "
+        while (true) {
+            skipPlainRun();
+            expectMoreInput(missingEndChar);
+            var c = current();
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                var n = next(missingEndChar);
+                switch (n) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                    case 'b':
+                    case 'f':
+                    case 'n':
+                    case 'r':
+                    case 't':
+                        break;
+                    case 'u':
+                        for (int i = 0; i < 4; ++i) {
+                            if (hexValue(next(missingEndChar)) < 0) {
+                                throw exception("invalid hexadecimal digit in '\\u' escape");
+                            }
+                        }
+                        break;
+                    default:
+                        throw exception(String.format("Unexpected escaped character '%c'", n));
+                }
+            } else {
+                skipUnescaped(c);
+            }
+            advance();
+        }
+        advance(); // step beyond closing "
+    }
+
+    // Checks a character of a string value that is not part of an escape
+    // sequence, like appendUnescaped but without appending it.
+    void skipUnescaped(char c) {
+    }
+
+    // Skips the optional ',' after a value in an object or an array.
+    void skipSeparator(boolean object) {
+        String error = object ? OBJECT_ERROR : ARRAY_ERROR;
+        expectMoreInput(error);
+        if (current() == ',') {
+            advance();
+        }
+        expectMoreInput(error);
+    }
+
+    // Skips the ':' and the whitespace around it after a field name.
+    void expectColon() {
+        consumeWhitespace();
+        if (!hasInput() || current() != ':') {
+            throw exception("a field must be followed by ':'");
+        }
+        advance(); // skip ':'
     }
 
     JSONNull parseNull() {
@@ -240,6 +561,9 @@ abstract class JSONParser {
 
     abstract boolean hasInput();
 
+    // Returns the offset of the current character from the start of the input.
+    abstract long position();
+
     void consumeWhitespace() {
         while (hasInput() && isLatin1WhiteSpace(current())) {
             advance();
@@ -297,8 +621,38 @@ abstract class JSONParser {
         }
     }
 
+    // Creates an exception at the current position.  The line, the column and
+    // the context are computed here, so that nothing is tracked while parsing
+    // valid input.
     abstract JSONParseException exception(String message);
 
+    // Number of chars, or bytes, of the context before and after an error.
+    static final int CONTEXT_RADIUS = 20;
+
+    // Creates an exception at index pos of a char sequence, where the lines
+    // are counted from index from, which is on the specified line starting at
+    // the specified offset.  Offsets are base plus the index.
+    static JSONParseException exception(String message, CharSequence input, int from, int pos,
+                                         long base, long line, long lineOffset) {
+        for (int i = from; i < pos; ++i) {
+            if (input.charAt(i) == '\n') {
+                line++;
+                lineOffset = base + i + 1;
+            }
+        }
+        int start = Math.max(0, pos - CONTEXT_RADIUS);
+        int end = Math.min(input.length(), pos + CONTEXT_RADIUS);
+        // Do not split surrogate pairs.
+        if (start > 0 && Character.isLowSurrogate(input.charAt(start))) {
+            start--;
+        }
+        if (end < input.length() && Character.isLowSurrogate(input.charAt(end))) {
+            end++;
+        }
+        String context = input.subSequence(start, end).toString();
+        return new JSONParseException(message, base + pos, line, base + pos - lineOffset + 1, context);
+    }
+
     static boolean isLatin1Digit(char c) {
         return c >= '0' && c <= '9';
     }
@@ -307,6 +661,24 @@ abstract class JSONParser {
         return isLatin1Digit(c) || c == '-';
     }
 
+    static int hexValue(char c) {
+        return c < HEX_VALUES.length ? HEX_VALUES[c] : -1;
+    }
+
+    // Value of each ASCII hexadecimal digit, -1 for other characters.
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(HEX_VALUES, (byte)-1);
+        for (int i = 0; i < 10; ++i) {
+            HEX_VALUES['0' + i] = (byte)i;
+        }
+        for (int i = 0; i < 6; ++i) {
+            HEX_VALUES['a' + i] = (byte)(10 + i);
+            HEX_VALUES['A' + i] = (byte)(10 + i);
+        }
+    }
+
     static boolean isLatin1WhiteSpace(char c) {
         return c == ' ' || c == '\n' || c == '\r' || c == '\t';
     }
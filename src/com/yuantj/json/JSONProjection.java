@@ -0,0 +1,194 @@
+package com.yuantj.json;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A precompiled set of paths selecting parts of a JSON document, used by
+ * {@link JSON#parse(String, JSONProjection)} to build only the selected
+ * values and skip everything else.
+ *
+ * Paths are JSON pointers, such as {@code /user/id}, and the token
+ * {@code *} matches any field name or array index, such as in
+ * <code>/items/&#42;/price</code>.  As in JSON pointers, {@code ~1} stands for
+ * {@code /} and {@code ~0} for {@code ~} in a token.  The empty path
+ * selects the whole document.
+ *
+ * The result of a projection keeps the containers on the way to the selected
+ * values, and only the members of them that are selected, in document order.
+ * The elements of an array that are not selected are removed, so that the
+ * indexes of the elements left may change.  Values which are not selected,
+ * and values on a selected path that are not containers, are skipped by only
+ * matching brackets and quotes, so that they are not checked completely.
+ * Instances of this class are immutable and thread-safe.
+ *
+ * @author yuantj
+ * @version 1.0
+ */
+public final class JSONProjection {
+    final Node root;
+    private final List<String> paths;
+
+    private JSONProjection(Node root, List<String> paths) {
+        this.root = root;
+        this.paths = paths;
+    }
+
+    /**
+     * Compiles a projection selecting the specified paths.
+     *
+     * @param paths The paths to select.
+     * @return The compiled projection.
+     * @throws IllegalArgumentException if a path is not a valid JSON pointer.
+     * @throws NullPointerException if the parameter or any of the paths is {@code null}.
+     */
+    public static JSONProjection of(String... paths) {
+        var root = new Node();
+        for (String path : paths) {
+            root.add(parsePath(path), 0);
+        }
+        root.mergeWildcards();
+        return new JSONProjection(root, List.of(paths));
+    }
+
+    private static String[] parsePath(String path) {
+        Objects.requireNonNull(path);
+        if (path.isEmpty()) {
+            return new String[0];
+        }
+        if (path.charAt(0) != '/') {
+            throw new IllegalArgumentException(String.format("path '%s' does not start with '/'", path));
+        }
+        String[] tokens = path.substring(1).split("/", -1);
+        for (int i = 0; i < tokens.length; ++i) {
+            String token = tokens[i];
+            if (token.indexOf('~') < 0) {
+                continue;
+            }
+            var sb = new StringBuilder();
+            for (int j = 0; j < token.length(); ++j) {
+                char c = token.charAt(j);
+                if (c != '~') {
+                    sb.append(c);
+                } else if (j + 1 < token.length() && (token.charAt(j + 1) == '0' || token.charAt(j + 1) == '1')) {
+                    sb.append(token.charAt(++j) == '0' ? '~' : '/');
+                } else {
+                    throw new IllegalArgumentException(String.format("invalid escape in path '%s'", path));
+                }
+            }
+            tokens[i] = sb.toString();
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns a string representation of this projection, that is, its paths.
+     *
+     * @return A string representation of this projection.
+     */
+    @Override
+    public String toString() {
+        return paths.toString();
+    }
+
+    // A node of the trie of the paths.  A node selecting all is the end of a
+    // path, and selects the whole value.
+    static final class Node {
+        // Selects every value, like the end of a path.
+        static final Node ALL = new Node(true);
+
+        private boolean all;
+        private final Map<String, Node> children = new HashMap<>();
+        private Node wildcard;
+
+        Node() {
+        }
+
+        private Node(boolean all) {
+            this.all = all;
+        }
+
+        private void add(String[] tokens, int index) {
+            if (all) {
+                return;
+            }
+            if (index == tokens.length) {
+                all = true;
+                children.clear();
+                wildcard = null;
+                return;
+            }
+            String token = tokens[index];
+            Node child;
+            if (token.equals("*")) {
+                if (wildcard == null) {
+                    wildcard = new Node();
+                }
+                child = wildcard;
+            } else {
+                child = children.computeIfAbsent(token, k -> new Node());
+            }
+            child.add(tokens, index + 1);
+        }
+
+        // Adds the paths below the wildcard to every other child, so that
+        // a name matched by a child is also matched by the wildcard.
+        private void mergeWildcards() {
+            if (wildcard != null) {
+                wildcard.mergeWildcards();
+                for (Node child : children.values()) {
+                    child.merge(wildcard);
+                }
+            }
+            for (Node child : children.values()) {
+                child.mergeWildcards();
+            }
+        }
+
+        private void merge(Node other) {
+            if (all) {
+                return;
+            }
+            if (other.all) {
+                all = true;
+                children.clear();
+                wildcard = null;
+                return;
+            }
+            for (var e : other.children.entrySet()) {
+                children.computeIfAbsent(e.getKey(), k -> new Node()).merge(e.getValue());
+            }
+            if (other.wildcard != null) {
+                if (wildcard == null) {
+                    wildcard = new Node();
+                }
+                wildcard.merge(other.wildcard);
+            }
+        }
+
+        boolean selectsAll() {
+            return all;
+        }
+
+        // Returns the node of the field with the specified name, or null if
+        // the field is not selected.
+        Node child(String name) {
+            Node child = children.get(name);
+            return child != null ? child : wildcard;
+        }
+
+        // Returns the node of the array element at the specified index, or
+        // null if the element is not selected.
+        Node child(int index) {
+            if (!children.isEmpty()) {
+                Node child = children.get(Integer.toString(index));
+                if (child != null) {
+                    return child;
+                }
+            }
+            return wildcard;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.yuantj.json;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * A streaming pull parser reading a JSON document token by token, without
+ * building {@link JSONObject} or {@link JSONArray} trees.  Instances are
+ * created by the {@code reader} methods of {@link JSON}.
+ *
+ * The reader accepts exactly the same documents as {@link JSON#parse(String)}.
+ * A typical loop looks like this:
+ * <pre>{@code
+ * JSONReader r = JSON.reader(json);
+ * for (JSONToken t = r.nextToken(); t != null; t = r.nextToken()) {
+ *     if (t == JSONToken.FIELD_NAME && r.getStringValue().equals("id")) {
+ *         r.nextToken();
+ *         long id = r.getLongValue();
+ *     }
+ * }
+ * }</pre>
+ *
+ * If the reader is created from a {@link java.io.Reader}, I/O errors are
+ * reported as {@link java.io.UncheckedIOException}.  Instances of this class
+ * are not thread-safe.
+ *
+ * @author yuantj
+ * @version 1.0
+ */
+public final class JSONReader {
+    // A value is expected.
+    private static final int VALUE = 0;
+    // A field name, a value or the end of the current container is expected.
+    private static final int HEAD = 1;
+    // A separator or the end of the current container is expected.
+    private static final int AFTER_VALUE = 2;
+    // The whole document has been read.
+    private static final int DONE = 3;
+
+    private final JSONParser parser;
+    private int state = VALUE;
+    private int depth = 0;
+    // objects[k] tells whether the container at depth k + 1 is an object.
+    private boolean[] objects = new boolean[16];
+    // names[k] is the current field name of the object at depth k.
+    private String[] names = new String[17];
+    private JSONToken token;
+    private String string;
+    private JSONNumber number;
+
+    JSONReader(JSONParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Reads the next token.
+     *
+     * @return The next token, or {@code null} if the end of the document
+     * has been reached.
+     * @throws JSONParseException if the document is invalid.
+     */
+    public JSONToken nextToken() {
+        string = null;
+        number = null;
+        switch (state) {
+            case VALUE:
+                return token = readValue();
+            case HEAD:
+                return token = readHead();
+            case AFTER_VALUE:
+                if (depth == 0) {
+                    parser.expectEnd();
+                    state = DONE;
+                    return token = null;
+                }
+                parser.skipSeparator(objects[depth - 1]);
+                return token = readHead();
+            default:
+                return token = null;
+        }
+    }
+
+    private JSONToken readHead() {
+        boolean object = objects[depth - 1];
+        if (parser.current() == (object ? '}' : ']')) {
+            parser.advance();
+            depth--;
+            parser.consumeWhitespace();
+            state = AFTER_VALUE;
+            return object ? JSONToken.END_OBJECT : JSONToken.END_ARRAY;
+        }
+        return object ? readName() : readValue();
+    }
+
+    private JSONToken readName() {
+        parser.expectFieldName();
+        String name = parser.parseFieldName();
+        parser.expectColon();
+        names[depth] = name;
+        string = name;
+        state = VALUE;
+        return JSONToken.FIELD_NAME;
+    }
+
+    private JSONToken readValue() {
+        parser.consumeWhitespace();
+        if (!parser.hasInput()) {
+            throw parser.exception("no valid JSON found");
+        }
+        JSONType possibleType = JSONParser.possibleStartType(parser.current());
+        if (possibleType == null) {
+            throw parser.exception("not a valid start of a JSON value");
+        }
+        JSONToken result;
+        switch (possibleType) {
+            case OBJECT:
+                push(true);
+                return JSONToken.START_OBJECT;
+            case ARRAY:
+                push(false);
+                return JSONToken.START_ARRAY;
+            case STRING:
+                string = parser.parseRawString();
+                result = JSONToken.VALUE_STRING;
+                break;
+            case NUMBER:
+                number = parser.parseNumber();
+                result = JSONToken.VALUE_NUMBER;
+                break;
+            case BOOLEAN:
+                result = parser.parseBoolean().value ? JSONToken.VALUE_TRUE : JSONToken.VALUE_FALSE;
+                break;
+            case NULL:
+                parser.parseNull();
+                result = JSONToken.VALUE_NULL;
+                break;
+            default:
+                throw new AssertionError(possibleType);
+        }
+        parser.consumeWhitespace();
+        state = AFTER_VALUE;
+        return result;
+    }
+
+    private void push(boolean object) {
+        parser.advance(); // step beyond opening '{' or '['
+        parser.consumeWhitespace();
+        parser.expectMoreInput(object ? JSONParser.OBJECT_ERROR : JSONParser.ARRAY_ERROR);
+        parser.checkDepth(depth);
+        if (depth == objects.length) {
+            objects = Arrays.copyOf(objects, depth * 2);
+            names = Arrays.copyOf(names, depth * 2 + 1);
+        }
+        objects[depth++] = object;
+        names[depth] = null;
+        state = HEAD;
+    }
+
+    /**
+     * Returns the current token, that is, the token returned by the
+     * last call of {@link #nextToken()}.
+     *
+     * @return The current token, or {@code null} if no token has been read
+     * or the end of the document has been reached.
+     */
+    public JSONToken currentToken() {
+        return token;
+    }
+
+    /**
+     * Returns the name of the field the current token belongs to.  For
+     * {@link JSONToken#FIELD_NAME} this is the name itself, for values and
+     * the start or end of containers this is the name of the field
+     * they are assigned to.
+     *
+     * @return The name of the current field, or {@code null} if the current
+     * token is not inside an object.
+     */
+    public String currentName() {
+        int level = token == JSONToken.START_OBJECT || token == JSONToken.START_ARRAY
+                ? depth - 1 : depth;
+        return level > 0 && objects[level - 1] ? names[level] : null;
+    }
+
+    /**
+     * Returns the nesting depth of the current token.  The depth is 0 for
+     * top-level values, and increases by one in each object or array.
+     *
+     * @return The nesting depth of the current token.
+     */
+    public int depth() {
+        return token == JSONToken.START_OBJECT || token == JSONToken.START_ARRAY ? depth - 1 : depth;
+    }
+
+    /**
+     * Returns the string value if the current token is
+     * {@link JSONToken#VALUE_STRING} or {@link JSONToken#FIELD_NAME}.
+     *
+     * @return The unescaped string value.
+     * @throws IllegalStateException if the current token is not a string or a field name.
+     */
+    public String getStringValue() {
+        if (token != JSONToken.VALUE_STRING && token != JSONToken.FIELD_NAME) {
+            throw tokenMismatch("string");
+        }
+        return string;
+    }
+
+    /**
+     * Returns the number value if the current token is {@link JSONToken#VALUE_NUMBER}.
+     *
+     * @return The number value.
+     * @throws IllegalStateException if the current token is not a number.
+     */
+    public JSONNumber getNumberValue() {
+        if (token != JSONToken.VALUE_NUMBER) {
+            throw tokenMismatch("number");
+        }
+        return number;
+    }
+
+    /**
+     * Returns the number value as a {@link BigDecimal}.
+     *
+     * @return The number value.
+     * @throws IllegalStateException if the current token is not a number.
+     * @see JSONNumber#getDecimal()
+     */
+    public BigDecimal getDecimalValue() {
+        return getNumberValue().getDecimal();
+    }
+
+    /**
+     * Returns the number value as an {@code int}.
+     *
+     * @return The number value.
+     * @throws IllegalStateException if the current token is not a number.
+     * @see JSONNumber#getInt()
+     */
+    public int getIntValue() {
+        return getNumberValue().getInt();
+    }
+
+    /**
+     * Returns the number value as a {@code long}.
+     *
+     * @return The number value.
+     * @throws IllegalStateException if the current token is not a number.
+     * @see JSONNumber#getLong()
+     */
+    public long getLongValue() {
+        return getNumberValue().getLong();
+    }
+
+    /**
+     * Returns the number value as an {@code int}, if it is an integer in
+     * the range of {@code int}.  Unlike {@link #getIntValue()}, the number is
+     * never rounded or truncated.
+     *
+     * @return The number value.
+     * @throws JSONTypeMismatchException if the number is not an integer in
+     * the range of {@code int}.
+     * @throws IllegalStateException if the current token is not a number.
+     * @see java.math.BigDecimal#intValueExact()
+     */
+    public int getIntValueExact() {
+        return (int)getNumberValue().getLongExact(Integer.MIN_VALUE, Integer.MAX_VALUE, "int");
+    }
+
+    /**
+     * Returns the number value as a {@code long}, if it is an integer in
+     * the range of {@code long}.  Unlike {@link #getLongValue()}, the number
+     * is never rounded or truncated.
+     *
+     * @return The number value.
+     * @throws JSONTypeMismatchException if the number is not an integer in
+     * the range of {@code long}.
+     * @throws IllegalStateException if the current token is not a number.
+     * @see java.math.BigDecimal#longValueExact()
+     */
+    public long getLongValueExact() {
+        return getNumberValue().getLongExact(Long.MIN_VALUE, Long.MAX_VALUE, "long");
+    }
+
+    /**
+     * Returns the number value as a {@code double}.
+     *
+     * @return The number value.
+     * @throws IllegalStateException if the current token is not a number.
+     * @see JSONNumber#getDouble()
+     */
+    public double getDoubleValue() {
+        return getNumberValue().getDouble();
+    }
+
+    /**
+     * Returns the boolean value if the current token is {@link JSONToken#VALUE_TRUE}
+     * or {@link JSONToken#VALUE_FALSE}.
+     *
+     * @return The boolean value.
+     * @throws IllegalStateException if the current token is not a boolean.
+     */
+    public boolean getBooleanValue() {
+        if (token == JSONToken.VALUE_TRUE) {
+            return true;
+        } else if (token == JSONToken.VALUE_FALSE) {
+            return false;
+        }
+        throw tokenMismatch("boolean");
+    }
+
+    private IllegalStateException tokenMismatch(String expected) {
+        return new IllegalStateException(expected + " expected, current token is " + token);
+    }
+
+    /**
+     * If the current token is {@link JSONToken#START_OBJECT} or
+     * {@link JSONToken#START_ARRAY}, skips all tokens of the container, so
+     * that the current token becomes the matching {@link JSONToken#END_OBJECT}
+     * or {@link JSONToken#END_ARRAY}.  Otherwise, this method does nothing.
+     *
+     * @throws JSONParseException if the document is invalid.
+     */
+    public void skipChildren() {
+        if (token != JSONToken.START_OBJECT && token != JSONToken.START_ARRAY) {
+            return;
+        }
+        int target = depth - 1;
+        while (depth > target) {
+            nextToken();
+        }
+    }
+
+    /**
+     * Reads the value starting at the current token as a {@link JSONElement}.
+     * If the current token is {@link JSONToken#START_OBJECT} or
+     * {@link JSONToken#START_ARRAY}, the whole container is read, and the current
+     * token becomes the matching {@link JSONToken#END_OBJECT} or
+     * {@link JSONToken#END_ARRAY}.
+     *
+     * @return The value starting at the current token.
+     * @throws IllegalStateException if the current token is not the start of a value.
+     * @throws JSONParseException if the document is invalid.
+     */
+    public JSONElement readElement() {
+        if (token == null || token == JSONToken.FIELD_NAME
+                || token == JSONToken.END_OBJECT || token == JSONToken.END_ARRAY) {
+            throw tokenMismatch("value");
+        }
+        if (token.isScalarValue()) {
+            return scalarElement();
+        }
+        var tree = new JSONSink.ToTree(null);
+        // Trees do not use the positions of containers.
+        tree.startContainer(token == JSONToken.START_OBJECT, 0);
+        int target = depth - 1;
+        while (depth > target) {
+            JSONToken t = nextToken();
+            switch (t) {
+                case FIELD_NAME:
+                    tree.field(string);
+                    break;
+                case START_OBJECT:
+                case START_ARRAY:
+                    tree.startContainer(t == JSONToken.START_OBJECT, 0);
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    tree.endContainer(t == JSONToken.END_OBJECT);
+                    break;
+                default:
+                    tree.value(scalarElement());
+                    break;
+            }
+        }
+        return tree.result();
+    }
+
+    private JSONElement scalarElement() {
+        switch (token) {
+            case VALUE_STRING: return JSONString.of(string);
+            case VALUE_NUMBER: return number;
+            case VALUE_TRUE:   return JSONBoolean.TRUE;
+            case VALUE_FALSE:  return JSONBoolean.FALSE;
+            case VALUE_NULL:   return JSONNull.NULL;
+            default:           throw new AssertionError(token);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.yuantj.json;
+
+// The keys of a JSONObject in document order, with the index used to find
+// them.  Shapes are immutable, so that objects with the same keys in the
+// same order can share one, like the hidden classes of JavaScript engines:
+// the parsers build each object of an array with the shape of the previous
+// element, and only allocate a new shape when the keys differ.
+//
+// Shapes with more than INDEX_MIN_SIZE keys have an open-addressing hash
+// index of the key positions, smaller ones are searched linearly.
+final class JSONShape {
+    static final int INDEX_MIN_SIZE = 8;
+
+    static final JSONShape EMPTY = new JSONShape(new String[0], null);
+
+    // The keys are distinct.
+    final String[] keys;
+    // Positions plus one of the keys by hash, with linear probing, or null
+    // if there are at most INDEX_MIN_SIZE keys.
+    private final int[] index;
+
+    // The index must be null or index the keys.
+    JSONShape(String[] keys, int[] index) {
+        assert (index == null) == (keys.length <= INDEX_MIN_SIZE);
+        this.keys = keys;
+        this.index = index;
+    }
+
+    JSONShape(String[] keys) {
+        this(keys, keys.length > INDEX_MIN_SIZE ? newIndex(keys, keys.length) : null);
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    // Returns the position of the key, or -1 if it is not present.
+    int find(String key) {
+        return find(keys, index, keys.length, key);
+    }
+
+    // Returns a table at most half full indexing the first size keys.
+    static int[] newIndex(String[] keys, int size) {
+        var index = new int[Integer.highestOneBit(size) * 4];
+        for (int i = 0; i < size; ++i) {
+            insert(index, keys[i], i);
+        }
+        return index;
+    }
+
+    // Adds the key at the position to a table returned by newIndex.
+    static void insert(int[] index, String key, int position) {
+        int mask = index.length - 1;
+        int h = hash(key) & mask;
+        while (index[h] != 0) {
+            h = (h + 1) & mask;
+        }
+        index[h] = position + 1;
+    }
+
+    // Returns the position of the key among the first size keys, searched
+    // through the index if it is not null, or -1 if it is not present.
+    static int find(String[] keys, int[] index, int size, String key) {
+        if (index == null) {
+            for (int i = 0; i < size; ++i) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = index.length - 1;
+        for (int h = hash(key) & mask; ; h = (h + 1) & mask) {
+            int p = index[h];
+            if (p == 0) {
+                return -1;
+            }
+            if (keys[p - 1].equals(key)) {
+                return p - 1;
+            }
+        }
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
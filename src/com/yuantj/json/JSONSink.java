@@ -0,0 +1,225 @@
+package com.yuantj.json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// Receives the values of a document from JSONParser.parse(JSONSink, Node),
+// the one loop implementing the grammar of nested values.  The loop checks
+// the structure, and leaves the field names and the scalars to the sink,
+// so that each mode only does the work it needs: building elements,
+// reporting events to a JSONHandler, or only checking them.
+abstract class JSONSink {
+    // Called when a container is opened, after its '{' or '[' at the
+    // specified position has been consumed.
+    abstract void startContainer(boolean object, long position);
+
+    // Called with the parser at the opening '"' of a field name, which must
+    // be consumed.  Returns the name, which may be null if it is not needed
+    // by the sink and all fields are selected.
+    abstract String field(JSONParser p);
+
+    // Called with the parser at the first character of a scalar of the
+    // specified possible type, which must be consumed.
+    abstract void scalar(JSONParser p, JSONType type);
+
+    // Called when a container is closed, after its '}' or ']' and the
+    // whitespace following it have been consumed.
+    abstract void endContainer(boolean object);
+
+    // Called for a value skipped by JSONParser.skipValue() instead of being
+    // parsed, which is on a selected path if selected is true.
+    void skipped(boolean selected) {
+    }
+
+    // Only checks the scalars, without creating any element.
+    static final JSONSink CHECK = new Check();
+
+    // Extended by JSONTape to record where the values are.
+    static class Check extends JSONSink {
+        @Override
+        void startContainer(boolean object, long position) {
+        }
+
+        @Override
+        String field(JSONParser p) {
+            p.skipString();
+            return null;
+        }
+
+        @Override
+        void scalar(JSONParser p, JSONType type) {
+            switch (type) {
+                case STRING:
+                    p.skipString();
+                    break;
+                case NUMBER:
+                    p.checkExponent(p.scanNumber());
+                    break;
+                case BOOLEAN:
+                    p.parseBoolean();
+                    break;
+                case NULL:
+                    p.parseNull();
+                    break;
+                default:
+                    throw new AssertionError(type);
+            }
+        }
+
+        @Override
+        void endContainer(boolean object) {
+        }
+    }
+
+    // Builds the elements of a document.
+    static final class ToTree extends JSONSink {
+        // The containers being built, innermost last, either a
+        // JSONObject.Builder or an ArrayList<JSONElement>.
+        private Object[] containers = new Object[16];
+        // names[k] is the current field name of the object containers[k].
+        private String[] names = new String[16];
+        private int depth = 0;
+        // The element preceding the document in an array, then the document.
+        private JSONElement result;
+
+        // The previous element may be null.
+        ToTree(JSONElement previous) {
+            this.result = previous;
+        }
+
+        JSONElement result() {
+            return result;
+        }
+
+        @Override
+        void startContainer(boolean object, long position) {
+            if (depth == containers.length) {
+                containers = Arrays.copyOf(containers, depth * 2);
+                names = Arrays.copyOf(names, depth * 2);
+            }
+            containers[depth] = !object
+                    ? new ArrayList<JSONElement>()
+                    : depth == 0 ? JSONParser.newObjectAfter(result) : JSONParser.newObject(containers[depth - 1]);
+            ++depth;
+        }
+
+        @Override
+        String field(JSONParser p) {
+            return field(p.parseFieldName());
+        }
+
+        // Sets the name of the next field of the innermost object.
+        String field(String name) {
+            return names[depth - 1] = name;
+        }
+
+        @Override
+        void scalar(JSONParser p, JSONType type) {
+            switch (type) {
+                case STRING:
+                    value(p.parseString());
+                    break;
+                case NUMBER:
+                    value(p.parseNumber());
+                    break;
+                case BOOLEAN:
+                    value(p.parseBoolean());
+                    break;
+                case NULL:
+                    value(p.parseNull());
+                    break;
+                default:
+                    throw new AssertionError(type);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void endContainer(boolean object) {
+            Object container = containers[--depth];
+            containers[depth] = null;
+            value(object
+                    ? ((JSONObject.Builder)container).build()
+                    : JSONArray.ofTrustedArray(((ArrayList<JSONElement>)container).toArray(new JSONElement[0])));
+        }
+
+        @Override
+        void skipped(boolean selected) {
+            // A selected field which is not a container still replaces a
+            // previous value of a duplicate name.
+            if (selected && depth > 0 && containers[depth - 1] instanceof JSONObject.Builder builder) {
+                builder.remove(names[depth - 1]);
+            }
+        }
+
+        // Adds a value to the innermost container, or makes it the result.
+        @SuppressWarnings("unchecked")
+        void value(JSONElement value) {
+            if (depth == 0) {
+                result = value;
+            } else if (containers[depth - 1] instanceof JSONObject.Builder builder) {
+                builder.put(names[depth - 1], value);
+            } else {
+                ((ArrayList<JSONElement>)containers[depth - 1]).add(value);
+            }
+        }
+    }
+
+    // Reports the events of a document to a handler.
+    static final class ToHandler extends JSONSink {
+        private final JSONHandler handler;
+        private final StringBuilder sb = new StringBuilder();
+
+        ToHandler(JSONHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        void startContainer(boolean object, long position) {
+            if (object) {
+                handler.startObject();
+            } else {
+                handler.startArray();
+            }
+        }
+
+        @Override
+        String field(JSONParser p) {
+            String name = p.parseFieldName();
+            handler.field(name);
+            return name;
+        }
+
+        @Override
+        void scalar(JSONParser p, JSONType type) {
+            switch (type) {
+                case STRING:
+                    sb.setLength(0);
+                    p.parseString(sb);
+                    handler.value(sb);
+                    break;
+                case NUMBER:
+                    handler.number(p.parseNumber());
+                    break;
+                case BOOLEAN:
+                    handler.value(p.parseBoolean().value);
+                    break;
+                case NULL:
+                    p.parseNull();
+                    handler.nullValue();
+                    break;
+                default:
+                    throw new AssertionError(type);
+            }
+        }
+
+        @Override
+        void endContainer(boolean object) {
+            if (object) {
+                handler.endObject();
+            } else {
+                handler.endArray();
+            }
+        }
+    }
+}
@@ -5,13 +5,19 @@ import java.io.IOException;
 /**
  * This class represents a JSON string.
  *
+ * If the system property {@code com.yuantj.json.stringPoolSize} is set to a
+ * positive number, short strings returned by the parsers and by
+ * {@link #of(Object)} are taken from a pool of about this many strings, so
+ * that values repeated across documents share one instance.  The pool is
+ * bounded, and a string may be evicted by another one.
+ *
  * @author yuantj
  * @version 1.0
  */
 public final class JSONString extends JSONElement {
     final String value;
 
-    private JSONString(String value) {
+    JSONString(String value) {
         super(JSONType.STRING);
         assert value != null;
         this.value = value;
@@ -25,7 +31,7 @@ public final class JSONString extends JSONElement {
      * @throws NullPointerException if {@code value} is {@code null}.
      */
     public static JSONString of(Object value) {
-        return new JSONString(value.toString());
+        return JSONStringPool.get(value.toString());
     }
 
     /**
@@ -35,7 +41,7 @@ public final class JSONString extends JSONElement {
      * @return A JSON string containing the given single character.
      */
     public static JSONString of(char value) {
-        return new JSONString(String.valueOf(value));
+        return JSONStringPool.get(String.valueOf(value));
     }
 
     /**
@@ -95,7 +101,19 @@ public final class JSONString extends JSONElement {
 
     static Appendable rawStringToJSON(String value, Appendable appendable, boolean ascii) throws IOException {
         appendable.append("\"");
-        for (var i = 0; i < value.length(); i++) {
+        int length = value.length();
+        for (var i = 0; i < length; i++) {
+            // Characters which are not escaped are appended a run at a time.
+            int start = i;
+            while (i < length && isPlain(value.charAt(i), ascii)) {
+                ++i;
+            }
+            if (i > start) {
+                appendable.append(value, start, i);
+                if (i == length) {
+                    break;
+                }
+            }
             char c = value.charAt(i);
             switch (c) {
                 case '"':
@@ -133,4 +151,8 @@ public final class JSONString extends JSONElement {
         }
         return appendable.append("\"");
     }
+
+    private static boolean isPlain(char c, boolean ascii) {
+        return c >= 0x20 && c != '"' && c != '\\' && c != '/' && (!ascii || c <= 0x7E);
+    }
 }
@@ -0,0 +1,51 @@
+package com.yuantj.json;
+
+// An optional pool of short JSON strings shared by all parsers and by
+// JSONString.of, so that values repeated across documents, such as enum
+// names or currency codes, are held by one JSONString instead of one per
+// occurrence.  G1 string deduplication only shares the arrays of equal
+// Strings, not the Strings and the JSONStrings wrapping them.
+//
+// The pool is disabled unless the system property
+// com.yuantj.json.stringPoolSize is set to the number of slots, which is
+// rounded up to a power of two.  Like JSONKeyCache, the pool is
+// direct-mapped: a string is stored in the slot selected by its hash,
+// evicting whatever was there, so that the pool never grows.  Slots are
+// read and written without locking, which is safe because JSONString only
+// has final fields, and a lost update only costs a later miss.
+final class JSONStringPool {
+    static final int MAX_LENGTH = 32;
+    private static final int MAX_SIZE = 1 << 24;
+
+    // null if the pool is disabled.
+    private static final JSONString[] SLOTS = newSlots(Integer.getInteger("com.yuantj.json.stringPoolSize", 0));
+
+    private JSONStringPool() {}
+
+    private static JSONString[] newSlots(int size) {
+        if (size <= 0) {
+            return null;
+        }
+        int n = Math.min(size, MAX_SIZE);
+        return new JSONString[n == 1 ? 1 : Integer.highestOneBit(n - 1) << 1];
+    }
+
+    // Returns the pooled JSON string of the value, pooling a new one if
+    // there is none.  Returns a new one if the pool is disabled or the
+    // value is too long to be pooled.
+    static JSONString get(String value) {
+        JSONString[] slots = SLOTS;
+        if (slots == null || value.length() > MAX_LENGTH) {
+            return new JSONString(value);
+        }
+        int h = value.hashCode();
+        int slot = (h ^ h >>> 16) & (slots.length - 1);
+        JSONString s = slots[slot];
+        if (s != null && s.value.equals(value)) {
+            return s;
+        }
+        s = new JSONString(value);
+        slots[slot] = s;
+        return s;
+    }
+}
@@ -0,0 +1,172 @@
+package com.yuantj.json;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// A structural index of a JSON document, used by LazyJSONAccessor to parse
+// only the parts of the document that are actually accessed.
+//
+// Every value and every field name of the document is a node of the tape,
+// numbered in document order.  The children of a container follow it
+// directly, each field name being followed by its value.  For node k,
+// tape[k] holds the offset of its first character in the high 32 bits and
+// the number of the node following it, including its descendants, in the
+// low 32 bits.
+abstract class JSONTape {
+    final long[] tape;
+
+    JSONTape(JSONParser parser) {
+        this.tape = index(parser);
+    }
+
+    final int offset(int node) {
+        return (int)(tape[node] >>> 32);
+    }
+
+    final int next(int node) {
+        return (int)tape[node];
+    }
+
+    final JSONType typeAt(int node) {
+        return JSONParser.possibleStartType(charAt(offset(node)));
+    }
+
+    final String fieldNameAt(int node) {
+        return parserAt(offset(node)).parseFieldName();
+    }
+
+    final JSONElement elementAt(int node) {
+        return parserAt(offset(node)).parseElement();
+    }
+
+    abstract char charAt(int offset);
+
+    // Returns a parser positioned at the specified offset.
+    abstract JSONParser parserAt(int offset);
+
+    // Returns true if the field name starting at the specified offset is
+    // equal to the specified key.
+    abstract boolean keyEquals(int offset, String key);
+
+    // Checks the whole document, which must fit in 2 GiB, and records its
+    // structure.  Scalars are only checked, not converted.
+    private static long[] index(JSONParser p) {
+        var indexer = new Indexer();
+        p.parse(indexer, JSONProjection.Node.ALL);
+        p.expectEnd();
+        return Arrays.copyOf(indexer.tape, indexer.size);
+    }
+
+    // Records a node at the start of each value and field name checked.
+    private static final class Indexer extends JSONSink.Check {
+        long[] tape = new long[16];
+        int size = 0;
+        // The nodes of the open containers, innermost last.
+        private int[] containers = new int[16];
+        private int depth = 0;
+
+        private int add(long position) {
+            if (size == tape.length) {
+                tape = Arrays.copyOf(tape, size * 2);
+            }
+            int node = size++;
+            tape[node] = position << 32 | size;
+            return node;
+        }
+
+        @Override
+        void startContainer(boolean object, long position) {
+            if (depth == containers.length) {
+                containers = Arrays.copyOf(containers, depth * 2);
+            }
+            containers[depth++] = add(position);
+        }
+
+        @Override
+        String field(JSONParser p) {
+            add(p.position());
+            return super.field(p);
+        }
+
+        @Override
+        void scalar(JSONParser p, JSONType type) {
+            add(p.position());
+            super.scalar(p, type);
+        }
+
+        @Override
+        void endContainer(boolean object) {
+            int container = containers[--depth];
+            tape[container] = tape[container] & 0xFFFFFFFF00000000L | size;
+        }
+    }
+
+    static final class OfString extends JSONTape {
+        private final String input;
+
+        OfString(String input) {
+            super(new StringJSONParser(input));
+            this.input = input;
+        }
+
+        @Override
+        char charAt(int offset) {
+            return input.charAt(offset);
+        }
+
+        @Override
+        JSONParser parserAt(int offset) {
+            return new StringJSONParser(input, offset, input.length());
+        }
+
+        @Override
+        boolean keyEquals(int offset, String key) {
+            int length = key.length();
+            for (int i = offset + 1, j = 0; ; ++i, ++j) {
+                char c = input.charAt(i);
+                if (c == '\\') {
+                    return parserAt(offset).parseRawString().equals(key);
+                } else if (c == '"') {
+                    return j == length;
+                } else if (j == length || c != key.charAt(j)) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    static final class OfBytes extends JSONTape {
+        // Index 0 of the buffer is the start of the document.
+        private final ByteBuffer input;
+
+        OfBytes(ByteBuffer input) {
+            super(new Utf8JSONParser(input.duplicate(), 0));
+            this.input = input;
+        }
+
+        @Override
+        char charAt(int offset) {
+            return (char)(input.get(offset) & 0xFF);
+        }
+
+        @Override
+        JSONParser parserAt(int offset) {
+            return new Utf8JSONParser(input.duplicate().position(offset), 0);
+        }
+
+        @Override
+        boolean keyEquals(int offset, String key) {
+            int length = key.length();
+            for (int i = offset + 1, j = 0; ; ++i, ++j) {
+                char c = charAt(i);
+                if (c == '\\' || c >= 0x80) {
+                    return parserAt(offset).parseRawString().equals(key);
+                } else if (c == '"') {
+                    return j == length;
+                } else if (j == length || c != key.charAt(j)) {
+                    return false;
+                }
+            }
+        }
+    }
+}
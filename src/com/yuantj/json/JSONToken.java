@@ -0,0 +1,69 @@
+package com.yuantj.json;
+
+/**
+ * An enum type describes the tokens reported by a {@link JSONReader}.
+ *
+ * @author yuantj
+ * @version 1.0
+ */
+public enum JSONToken {
+    /**
+     * The start of an object, {@code '{'}.
+     */
+    START_OBJECT,
+
+    /**
+     * The end of an object, {@code '}'}.
+     */
+    END_OBJECT,
+
+    /**
+     * The start of an array, {@code '['}.
+     */
+    START_ARRAY,
+
+    /**
+     * The end of an array, {@code ']'}.
+     */
+    END_ARRAY,
+
+    /**
+     * The name of a field of an object.
+     */
+    FIELD_NAME,
+
+    /**
+     * A string value.
+     */
+    VALUE_STRING,
+
+    /**
+     * A number value.
+     */
+    VALUE_NUMBER,
+
+    /**
+     * A {@code true} value.
+     */
+    VALUE_TRUE,
+
+    /**
+     * A {@code false} value.
+     */
+    VALUE_FALSE,
+
+    /**
+     * A {@code null} value.
+     */
+    VALUE_NULL;
+
+    /**
+     * Returns {@code true} if this token is a scalar value, that is,
+     * a string, a number, a boolean or a null.
+     *
+     * @return {@code true} if this token is a scalar value.
+     */
+    public boolean isScalarValue() {
+        return compareTo(VALUE_STRING) >= 0;
+    }
+}
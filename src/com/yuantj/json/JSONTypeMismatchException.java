@@ -44,6 +44,14 @@ public class JSONTypeMismatchException extends IllegalStateException {
         this.found = found;
     }
 
+    // Constructs an exception for a value of the expected type which cannot
+    // be converted, such as a number out of range, with its own message.
+    JSONTypeMismatchException(String message, JSONType found, JSONType... expected) {
+        super(message);
+        this.expected = List.of(expected);
+        this.found = found;
+    }
+
     private static String generateMessage(JSONType found, Iterable<? extends JSONType> expected) {
         var sb = new StringBuilder();
         var sj = new StringJoiner(", ");
@@ -0,0 +1,196 @@
+package com.yuantj.json;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+// A node of a JSONTape.  Values are only parsed when they are accessed, and
+// containers only decode the field names and positions of their children.
+final class LazyJSONAccessor implements JSONAccessor {
+    private final JSONTape tape;
+    private final int node;
+    private final JSONType type;
+    private JSONElement element;
+    private Map<String, LazyJSONAccessor> map;
+    private LazyList list;
+
+    LazyJSONAccessor(JSONTape tape, int node) {
+        this.tape = tape;
+        this.node = node;
+        this.type = tape.typeAt(node);
+    }
+
+    @Override
+    public JSONType getType() {
+        return type;
+    }
+
+    @Override
+    public Map<String, LazyJSONAccessor> getMap() {
+        if (type != JSONType.OBJECT) {
+            throw new JSONTypeMismatchException(type, JSONType.OBJECT);
+        }
+        if (map == null) {
+            var m = new LinkedHashMap<String, LazyJSONAccessor>();
+            for (int key = node + 1, end = tape.next(node); key < end; key = tape.next(key + 1)) {
+                m.put(tape.fieldNameAt(key), new LazyJSONAccessor(tape, key + 1));
+            }
+            map = Collections.unmodifiableMap(m);
+        }
+        return map;
+    }
+
+    @Override
+    public Optional<LazyJSONAccessor> getOptional(String key) {
+        Objects.requireNonNull(key);
+        if (map != null || type != JSONType.OBJECT) {
+            return Optional.ofNullable(getMap().get(key));
+        }
+        // Scan the field names without decoding them, the last
+        // duplicate wins like in JSON.parse.
+        int found = -1;
+        for (int k = node + 1, end = tape.next(node); k < end; k = tape.next(k + 1)) {
+            if (tape.keyEquals(tape.offset(k), key)) {
+                found = k + 1;
+            }
+        }
+        return found < 0 ? Optional.empty() : Optional.of(new LazyJSONAccessor(tape, found));
+    }
+
+    @Override
+    public List<LazyJSONAccessor> getList() {
+        if (type != JSONType.ARRAY) {
+            throw new JSONTypeMismatchException(type, JSONType.ARRAY);
+        }
+        if (list == null) {
+            list = new LazyList();
+        }
+        return list;
+    }
+
+    @Override
+    public LazyJSONAccessor get(int index) {
+        return getList().get(index);
+    }
+
+    @Override
+    public int size() {
+        switch (type) {
+            case OBJECT:
+                return getMap().size();
+            case ARRAY:
+                return getList().size();
+            default:
+                throw new JSONTypeMismatchException(type, JSONType.OBJECT, JSONType.ARRAY);
+        }
+    }
+
+    private final class LazyList extends AbstractList<LazyJSONAccessor> implements RandomAccess {
+        private final int[] nodes;
+        private final LazyJSONAccessor[] items;
+
+        LazyList() {
+            int count = 0;
+            int end = tape.next(node);
+            for (int k = node + 1; k < end; k = tape.next(k)) {
+                count++;
+            }
+            nodes = new int[count];
+            for (int k = node + 1, i = 0; k < end; k = tape.next(k)) {
+                nodes[i++] = k;
+            }
+            items = new LazyJSONAccessor[count];
+        }
+
+        @Override
+        public LazyJSONAccessor get(int index) {
+            LazyJSONAccessor item = items[index];
+            if (item == null) {
+                item = items[index] = new LazyJSONAccessor(tape, nodes[index]);
+            }
+            return item;
+        }
+
+        @Override
+        public int size() {
+            return nodes.length;
+        }
+    }
+
+    @Override
+    public String getString() {
+        checkType(JSONType.STRING);
+        return toJSONElement().getString();
+    }
+
+    @Override
+    public BigDecimal getDecimal() {
+        checkType(JSONType.NUMBER);
+        return toJSONElement().getDecimal();
+    }
+
+    @Override
+    public int getInt() {
+        checkType(JSONType.NUMBER);
+        return toJSONElement().getInt();
+    }
+
+    @Override
+    public long getLong() {
+        checkType(JSONType.NUMBER);
+        return toJSONElement().getLong();
+    }
+
+    @Override
+    public double getDouble() {
+        checkType(JSONType.NUMBER);
+        return toJSONElement().getDouble();
+    }
+
+    @Override
+    public boolean getBoolean() {
+        checkType(JSONType.BOOLEAN);
+        return toJSONElement().getBoolean();
+    }
+
+    // Checked before materializing, so that a mismatch never parses a container.
+    private void checkType(JSONType expected) {
+        if (type != expected) {
+            throw new JSONTypeMismatchException(type, expected);
+        }
+    }
+
+    @Override
+    public JSONElement toJSONElement() {
+        if (element == null) {
+            element = tape.elementAt(node);
+        }
+        return element;
+    }
+
+    @Override
+    public Object toRawObject() {
+        return toJSONElement().toRawObject();
+    }
+
+    @Override
+    public String toJSON() {
+        return toJSONElement().toJSON();
+    }
+
+    @Override
+    public String toAsciiJSON() {
+        return toJSONElement().toAsciiJSON();
+    }
+
+    @Override
+    public String toString() {
+        return toJSON();
+    }
+}
@@ -0,0 +1,38 @@
+package com.yuantj.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+// Parses a UTF-8 file mapped into memory, so that the bytes are served by the
+// page cache rather than copied through a Reader.  A single mapping cannot
+// exceed 2 GiB, so larger files are mapped in consecutive windows.
+final class MappedJSONParser extends Utf8JSONParser {
+    static final long WINDOW_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+
+    MappedJSONParser(FileChannel channel) throws IOException {
+        super(map(channel, 0, channel.size()));
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long from, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(size - from, WINDOW_SIZE));
+    }
+
+    @Override
+    void nextWindow() {
+        long next = base + limit;
+        if (next < size) {
+            try {
+                slideWindow(map(channel, next, size), next);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
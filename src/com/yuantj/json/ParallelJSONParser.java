@@ -0,0 +1,321 @@
+package com.yuantj.json;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+// Parses a large document whose top-level value is an object or an array on
+// a ForkJoinPool.
+//
+// The input is split into chunks, and the string state of every chunk is
+// computed in parallel for each possible state at its start: outside a
+// string, inside a string, or right after a backslash inside a string.
+// These states are then resolved serially across chunk boundaries, and
+// the separators of the top-level container are collected in parallel.
+// Finally, the members of the container are parsed in parallel, each with
+// its own JSONParser.
+//
+// Any error falls back to a sequential parse, so that exactly the same
+// documents are accepted and the same errors are reported as JSON.parse.
+abstract class ParallelJSONParser {
+    static final int MIN_CHUNK_SIZE = 1 << 20;
+
+    private static final int OUT = 0;
+    private static final int IN = 1;
+    private static final int ESCAPED = 2;
+
+    private final ForkJoinPool pool;
+    final int length;
+
+    ParallelJSONParser(ForkJoinPool pool, int length) {
+        this.pool = pool;
+        this.length = length;
+    }
+
+    abstract char charAt(int index);
+
+    // Returns a parser for the range [start, end) of the input.
+    abstract JSONParser parser(int start, int end);
+
+    JSONElement parse() {
+        int start = 0;
+        while (start < length && JSONParser.isLatin1WhiteSpace(charAt(start))) {
+            start++;
+        }
+        if (length < 2 * MIN_CHUNK_SIZE || pool.getParallelism() < 2 || start == length
+                || charAt(start) != '{' && charAt(start) != '[') {
+            return parser(0, length).parse();
+        }
+        try {
+            return parseContainer(start);
+        } catch (JSONParseException e) {
+            return parser(0, length).parse();
+        }
+    }
+
+    private JSONElement parseContainer(int start) {
+        int chunkSize = Math.max(MIN_CHUNK_SIZE,
+                (int)Math.min(Integer.MAX_VALUE, ((long)length - start) / (pool.getParallelism() * 4L) + 1));
+        int chunks = (int)(((long)length - start + chunkSize - 1) / chunkSize);
+
+        // Pass 1: string state and bracket depth change of each chunk,
+        // for each possible string state at its start.
+        byte[] exits = new byte[chunks * 3];
+        int[] deltas = new int[chunks * 3];
+        forEach(chunks, chunk -> {
+            int from = start + chunk * chunkSize;
+            int to = (int)Math.min(length, (long)from + chunkSize);
+            for (int entry = OUT; entry <= ESCAPED; ++entry) {
+                int state = entry;
+                int delta = 0;
+                for (int i = from; i < to; ++i) {
+                    char c = charAt(i);
+                    if (state == OUT) {
+                        if (c == '{' || c == '[') {
+                            delta++;
+                        } else if (c == '}' || c == ']') {
+                            delta--;
+                        }
+                    }
+                    state = nextState(state, c);
+                }
+                exits[chunk * 3 + entry] = (byte)state;
+                deltas[chunk * 3 + entry] = delta;
+            }
+        });
+
+        // Resolve the state at the start of each chunk.
+        byte[] entryStates = new byte[chunks];
+        int[] entryDepths = new int[chunks];
+        int state = OUT;
+        int depth = 0;
+        for (int chunk = 0; chunk < chunks; ++chunk) {
+            entryStates[chunk] = (byte)state;
+            entryDepths[chunk] = depth;
+            depth += deltas[chunk * 3 + state];
+            state = exits[chunk * 3 + state];
+        }
+        if (state != OUT || depth != 0) {
+            throw new JSONParseException("unbalanced input");
+        }
+
+        // Pass 2: separators of the top-level container, and its end.
+        int[][] separators = new int[chunks][];
+        int[] separatorCounts = new int[chunks];
+        int[] ends = new int[chunks];
+        forEach(chunks, chunk -> {
+            int from = start + chunk * chunkSize;
+            int to = (int)Math.min(length, (long)from + chunkSize);
+            int s = entryStates[chunk];
+            int d = entryDepths[chunk];
+            int[] found = new int[16];
+            int count = 0;
+            int end = -1;
+            for (int i = from; i < to; ++i) {
+                char c = charAt(i);
+                if (s == OUT) {
+                    if (c == '{' || c == '[') {
+                        if (d++ == 0 && i != start) {
+                            throw new JSONParseException("more than one top-level value");
+                        }
+                    } else if (c == '}' || c == ']') {
+                        if (--d == 0) {
+                            end = i;
+                        }
+                    } else if ((c == ',' || c == ':') && d == 1) {
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, count * 2);
+                        }
+                        found[count++] = i;
+                    }
+                }
+                s = nextState(s, c);
+            }
+            separators[chunk] = found;
+            separatorCounts[chunk] = count;
+            ends[chunk] = end;
+        });
+
+        int end = -1;
+        int total = 0;
+        for (int chunk = 0; chunk < chunks; ++chunk) {
+            end = Math.max(end, ends[chunk]);
+            total += separatorCounts[chunk];
+        }
+        // Members are delimited by bounds[j] and bounds[j + 1], exclusive.
+        int[] bounds = new int[total + 2];
+        bounds[0] = start;
+        for (int chunk = 0, j = 1; chunk < chunks; ++chunk) {
+            System.arraycopy(separators[chunk], 0, bounds, j, separatorCounts[chunk]);
+            j += separatorCounts[chunk];
+        }
+        bounds[total + 1] = end;
+        for (int i = end + 1; i < length; ++i) {
+            if (!JSONParser.isLatin1WhiteSpace(charAt(i))) {
+                throw new JSONParseException("more than one top-level value");
+            }
+        }
+        return charAt(start) == '[' ? parseArray(bounds) : parseObject(bounds);
+    }
+
+    private static int nextState(int state, char c) {
+        switch (state) {
+            case OUT:
+                return c == '"' ? IN : OUT;
+            case IN:
+                return c == '"' ? OUT : c == '\\' ? ESCAPED : IN;
+            default:
+                return IN;
+        }
+    }
+
+    private JSONArray parseArray(int[] bounds) {
+        int members = memberCount(bounds);
+        for (int j = 1; j < members; ++j) {
+            if (charAt(bounds[j]) != ',') {
+                throw new JSONParseException("unexpected ':'");
+            }
+        }
+        var values = new JSONElement[members];
+        // Like in JSON.parse, an object starts with the shape of the previous
+        // element, which is only known within a batch.
+        parseMembers(members, (from, to) -> {
+            JSONElement previous = null;
+            for (int j = from; j < to; ++j) {
+                previous = values[j] = parser(bounds[j] + 1, bounds[j + 1]).parseAfter(previous);
+            }
+        });
+        return JSONArray.ofTrustedArray(values);
+    }
+
+    private JSONObject parseObject(int[] bounds) {
+        int members = memberCount(bounds);
+        if (members % 2 != 0) {
+            throw new JSONParseException("a field must be followed by ':'");
+        }
+        for (int j = 1; j < members; ++j) {
+            if (charAt(bounds[j]) != (j % 2 == 1 ? ':' : ',')) {
+                throw new JSONParseException("unexpected separator");
+            }
+        }
+        var values = new JSONElement[members];
+        parseMembers(members, (from, to) -> {
+            for (int j = from; j < to; ++j) {
+                JSONElement e = parser(bounds[j] + 1, bounds[j + 1]).parse();
+                if (j % 2 == 0 && !(e instanceof JSONString)) {
+                    throw new JSONParseException("a field must of type string");
+                }
+                values[j] = e;
+            }
+        });
+        var builder = new JSONObject.Builder();
+        for (int j = 0; j < members; j += 2) {
+            builder.put(values[j].getString(), values[j + 1]);
+        }
+        return builder.build();
+    }
+
+    // Returns the number of members delimited by the bounds, ignoring an empty
+    // last member.  Like in JSON.parse, a container may contain only whitespace,
+    // and a trailing ',' must be followed directly by the closing bracket.
+    private int memberCount(int[] bounds) {
+        int members = bounds.length - 1;
+        int from = bounds[members - 1] + 1;
+        int to = bounds[members];
+        if (members == 1) {
+            for (int i = from; i < to; ++i) {
+                if (!JSONParser.isLatin1WhiteSpace(charAt(i))) {
+                    return members;
+                }
+            }
+            return 0;
+        }
+        return from == to && charAt(bounds[members - 1]) == ',' ? members - 1 : members;
+    }
+
+    // Parses the members in batches, each one running the action on a range
+    // [from, to) of members.
+    private void parseMembers(int members, BatchAction action) {
+        int batches = Math.min(members, pool.getParallelism() * 8);
+        forEach(batches, batch -> {
+            int from = (int)((long)members * batch / batches);
+            int to = (int)((long)members * (batch + 1) / batches);
+            action.parse(from, to);
+        });
+    }
+
+    private interface BatchAction {
+        void parse(int from, int to);
+    }
+
+    private void forEach(int count, IntConsumer action) {
+        pool.invoke(new RangeAction(0, count, action));
+    }
+
+    private static final class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        RangeAction(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                for (int i = from; i < to; ++i) {
+                    action.accept(i);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeAction(from, middle, action), new RangeAction(middle, to, action));
+            }
+        }
+    }
+
+    static final class OfString extends ParallelJSONParser {
+        private final String input;
+
+        OfString(String input, ForkJoinPool pool) {
+            super(pool, input.length());
+            this.input = input;
+        }
+
+        @Override
+        char charAt(int index) {
+            return input.charAt(index);
+        }
+
+        @Override
+        JSONParser parser(int start, int end) {
+            return new StringJSONParser(input, start, end);
+        }
+    }
+
+    static final class OfBytes extends ParallelJSONParser {
+        // Index 0 of the buffer is the start of the document.
+        private final ByteBuffer input;
+
+        OfBytes(ByteBuffer input, ForkJoinPool pool) {
+            super(pool, input.remaining());
+            this.input = input;
+        }
+
+        @Override
+        char charAt(int index) {
+            return (char)(input.get(index) & 0xFF);
+        }
+
+        @Override
+        JSONParser parser(int start, int end) {
+            return new Utf8JSONParser(input.duplicate().position(start).limit(end), 0);
+        }
+    }
+}
@@ -3,61 +3,149 @@ package com.yuantj.json;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
 
+// Reads the input in blocks into a char window, so that the parser does
+// not call Reader.read() once per character.
 final class ReaderJSONParser extends JSONParser {
+    static final int BUFFER_SIZE = 8192;
+
     final Reader reader;
-    Character last = null;
+    private final char[] buf = new char[BUFFER_SIZE];
+    private int pos = 0;
+    private int limit = 0;
+    // Number of characters kept at the start of the window from the
+    // previous one, as the context of errors near the start of this one.
+    private int kept = 0;
+    // Number of characters consumed before the current window.
+    private long consumed = 0;
+    private boolean eof = false;
+    // Line at the start of the window, and the offset where it starts.
+    private long line = 1;
+    private long lineOffset = 0;
 
     ReaderJSONParser(Reader reader) {
         this.reader = reader;
+        fill();
     }
 
     @Override
     char current() {
-        return last;
+        return buf[pos];
     }
 
     @Override
     void advance() {
-        int r;
-        try {
-            r = reader.read();
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+        if (++pos >= limit) {
+            fill();
         }
-        last = r < 0 ? null : (char)r;
     }
 
     @Override
     boolean hasInput() {
-        return last != null;
+        return pos < limit;
     }
 
     @Override
-    JSONParseException exception(String message) {
-        return new JSONParseException(message);
+    long position() {
+        return consumed + pos;
+    }
+
+    @Override
+    String parsePlainString() {
+        // Only strings ending in the current window are copied directly.
+        int end = plainRunEnd(pos + 1);
+        if (end == limit || buf[end] != '"') {
+            return null;
+        }
+        String s = new String(buf, pos + 1, end - pos - 1);
+        pos = end;
+        advance(); // step beyond closing "
+        return s;
+    }
+
+    @Override
+    String parseFieldName() {
+        int end = plainRunEnd(pos + 1);
+        if (end == limit || buf[end] != '"') {
+            return parseRawString();
+        }
+        String s = JSONKeyCache.get(buf, pos + 1, end);
+        pos = end;
+        advance(); // step beyond closing "
+        return s;
+    }
+
+    @Override
+    void appendPlainRun(StringBuilder sb) {
+        int end = plainRunEnd(pos);
+        if (end > pos) {
+            sb.append(buf, pos, end - pos);
+            pos = end - 1;
+            advance();
+        }
     }
 
     @Override
-    void expect(String s) {
+    void skipPlainRun() {
+        int end = plainRunEnd(pos);
+        if (end > pos) {
+            pos = end - 1;
+            advance();
+        }
+    }
+
+    // Returns the index of the first '"' or '\\' in the window at or after
+    // the specified index, or limit if there is none.
+    private int plainRunEnd(int from) {
+        int i = from;
+        while (i < limit) {
+            char c = buf[i];
+            if (c == '"' || c == '\\') {
+                break;
+            }
+            ++i;
+        }
+        return i;
+    }
+
+    private void fill() {
+        // Count the lines of the window before it is discarded, the kept
+        // characters were counted with the previous one.
+        for (int i = kept; i < limit; ++i) {
+            if (buf[i] == '\n') {
+                line++;
+                lineOffset = consumed + i + 1;
+            }
+        }
+        int n = Math.min(limit, CONTEXT_RADIUS);
+        System.arraycopy(buf, limit - n, buf, 0, n);
+        consumed += limit - n;
+        kept = n;
+        pos = n;
+        limit = n;
+        if (eof) {
+            return;
+        }
         int r;
-        int len = s.length();
-        char[] c = new char[len];
         try {
-            r = reader.read(c);
+            // Reader.read may return 0 for a non-empty buffer only
+            // when it is misbehaving, loop anyway to be safe.
+            do {
+                r = reader.read(buf, kept, buf.length - kept);
+            } while (r == 0);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
-        if (r != len) {
-            throw exception("unexpected end");
-        }
-        for (int i = 0; i < len; ++i) {
-            char a = c[i];
-            char b = s.charAt(i);
-            if (c[i] != s.charAt(i)) {
-                throw exception("expected character \"" + a + "\", "
-                        + JSONString.rawStringToJSON(String.valueOf(b), false) + " found");
-            }
+        if (r > 0) {
+            limit += r;
+        } else {
+            eof = true;
         }
     }
+
+    @Override
+    JSONParseException exception(String message) {
+        return exception(message, CharBuffer.wrap(buf, 0, limit), kept, pos, consumed, line, lineOffset);
+    }
 }
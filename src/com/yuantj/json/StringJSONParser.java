@@ -3,11 +3,20 @@ package com.yuantj.json;
 import java.util.Objects;
 
 final class StringJSONParser extends JSONParser {
-    private int pos = 0;
+    private int pos;
+    private final int limit;
     private final String input;
 
     StringJSONParser(String input) {
+        this(input, 0, input.length());
+    }
+
+    // Parses input.substring(start, limit), positions are still
+    // reported relative to the start of input.
+    StringJSONParser(String input, int start, int limit) {
         this.input = Objects.requireNonNull(input);
+        this.pos = start;
+        this.limit = limit;
     }
 
     @Override
@@ -22,11 +31,62 @@ final class StringJSONParser extends JSONParser {
 
     @Override
     boolean hasInput() {
-        return pos < input.length();
+        return pos < limit;
+    }
+
+    @Override
+    long position() {
+        return pos;
+    }
+
+    @Override
+    String parsePlainString() {
+        int end = plainRunEnd(pos + 1);
+        if (end == limit || input.charAt(end) != '"') {
+            return null;
+        }
+        String s = input.substring(pos + 1, end);
+        pos = end + 1;
+        return s;
+    }
+
+    @Override
+    String parseFieldName() {
+        int end = plainRunEnd(pos + 1);
+        if (end == limit || input.charAt(end) != '"') {
+            return parseRawString();
+        }
+        String s = JSONKeyCache.get(input, pos + 1, end);
+        pos = end + 1;
+        return s;
+    }
+
+    @Override
+    void appendPlainRun(StringBuilder sb) {
+        int end = plainRunEnd(pos);
+        sb.append(input, pos, end);
+        pos = end;
+    }
+
+    @Override
+    void skipPlainRun() {
+        pos = plainRunEnd(pos);
+    }
+
+    private int plainRunEnd(int from) {
+        int i = from;
+        while (i < limit) {
+            char c = input.charAt(i);
+            if (c == '"' || c == '\\') {
+                break;
+            }
+            ++i;
+        }
+        return i;
     }
 
     @Override
     JSONParseException exception(String message) {
-        return new JSONParseException(String.format("[%d]: %s : %s", pos, message, input));
+        return exception(message, input, 0, Math.min(pos, input.length()), 0, 1, 0);
     }
 }
@@ -0,0 +1,255 @@
+package com.yuantj.json;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Parses UTF-8 encoded input without decoding it to chars first.  Structural
+// characters, numbers and literals are all ASCII, so each byte is handed to
+// JSONParser as a char, and multi-byte sequences are only decoded inside
+// string values.
+//
+// The input is accessed through a window, subclasses may slide the window
+// over inputs that do not fit into a single ByteBuffer by overriding
+// nextWindow().
+//
+// Runs of whitespace and of plain string content are found by ByteScanner,
+// which uses the Vector API when it is available.
+class Utf8JSONParser extends JSONParser {
+    private static final ByteScanner SCANNER = ByteScanner.INSTANCE;
+
+    ByteBuffer input;
+    int limit;
+    int pos;
+    // Offset of the input corresponding to index 0 of the window.
+    long base;
+    // Lines are counted lazily from index lineFrom of the window, which is
+    // on the specified line, starting at lineOffset.
+    private int lineFrom;
+    private long line = 1;
+    private long lineOffset = 0;
+
+    Utf8JSONParser(ByteBuffer input) {
+        this(input, -input.position());
+    }
+
+    // Positions are reported as base plus the index in the buffer.
+    Utf8JSONParser(ByteBuffer input, long base) {
+        setWindow(input, base);
+        this.lineFrom = (int)Math.max(0, -base);
+    }
+
+    // The current position of the input is on the specified line, which
+    // starts at the specified offset.
+    Utf8JSONParser(ByteBuffer input, long base, long line, long lineOffset) {
+        setWindow(input, base);
+        this.lineFrom = input.position();
+        this.line = line;
+        this.lineOffset = lineOffset;
+    }
+
+    private void setWindow(ByteBuffer input, long base) {
+        this.input = input;
+        this.limit = input.limit();
+        this.pos = input.position();
+        this.base = base;
+    }
+
+    // Called when the window is exhausted.  Leaves the window exhausted
+    // if there is no more input, or replaces it by slideWindow().
+    void nextWindow() {
+    }
+
+    // Replaces the exhausted window by the next one, at the specified offset.
+    final void slideWindow(ByteBuffer input, long base) {
+        countLines(limit);
+        setWindow(input, base);
+        lineFrom = 0;
+    }
+
+    // Counts the lines of the window up to the specified index.
+    private void countLines(int to) {
+        for (int i = lineFrom; i < to; ++i) {
+            if (input.get(i) == '\n') {
+                line++;
+                lineOffset = base + i + 1;
+            }
+        }
+        lineFrom = to;
+    }
+
+    @Override
+    char current() {
+        return (char)(input.get(pos) & 0xFF);
+    }
+
+    @Override
+    void advance() {
+        if (++pos >= limit) {
+            nextWindow();
+        }
+    }
+
+    @Override
+    boolean hasInput() {
+        return pos < limit;
+    }
+
+    @Override
+    long position() {
+        return base + pos;
+    }
+
+    @Override
+    String parsePlainString() {
+        // Only ASCII strings ending in the current window are copied
+        // directly, they are their own ISO-8859-1 encoding.
+        int end = plainRunEnd(pos + 1);
+        if (end == limit || input.get(end) != '"') {
+            return null;
+        }
+        String s = latin1String(pos + 1, end);
+        pos = end;
+        advance(); // step beyond closing "
+        return s;
+    }
+
+    @Override
+    void appendPlainRun(StringBuilder sb) {
+        int end = plainRunEnd(pos);
+        if (end > pos) {
+            sb.append(latin1String(pos, end));
+            pos = end - 1;
+            advance();
+        }
+    }
+
+    @Override
+    void skipPlainRun() {
+        int end = plainRunEnd(pos);
+        if (end > pos) {
+            pos = end - 1;
+            advance();
+        }
+    }
+
+    // Returns the index of the first '"', '\\' or non-ASCII byte in the
+    // window at or after the specified index, or limit if there is none.
+    private int plainRunEnd(int from) {
+        return SCANNER.plainRunEnd(input, from, limit);
+    }
+
+    @Override
+    void consumeWhitespace() {
+        while (true) {
+            int end = SCANNER.skipWhitespace(input, pos, limit);
+            if (end < limit) {
+                pos = end;
+                return;
+            }
+            if (pos >= limit) {
+                return;
+            }
+            // The window is all whitespace, go on in the next one.
+            pos = limit - 1;
+            advance();
+        }
+    }
+
+    @Override
+    String parseFieldName() {
+        int end = plainRunEnd(pos + 1);
+        if (end == limit || input.get(end) != '"') {
+            return parseRawString();
+        }
+        String s = JSONKeyCache.get(input, pos + 1, end);
+        pos = end;
+        advance(); // step beyond closing "
+        return s;
+    }
+
+    private String latin1String(int from, int to) {
+        return latin1String(input, from, to);
+    }
+
+    static String latin1String(ByteBuffer input, int from, int to) {
+        if (input.hasArray()) {
+            return new String(input.array(), input.arrayOffset() + from, to - from, StandardCharsets.ISO_8859_1);
+        }
+        var bytes = new byte[to - from];
+        input.get(from, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    void appendUnescaped(StringBuilder sb, char c) {
+        if (c < 0x80) {
+            sb.append(c);
+        } else {
+            sb.appendCodePoint(decode(c));
+        }
+    }
+
+    @Override
+    void skipUnescaped(char c) {
+        if (c >= 0x80) {
+            decode(c);
+        }
+    }
+
+    // Decodes the multi-byte sequence starting with the current byte c,
+    // leaving the last byte of the sequence current.
+    private int decode(char c) {
+        String malformed = "malformed UTF-8 sequence";
+        int cp;
+        int n;
+        if ((c & 0xE0) == 0xC0) {
+            cp = c & 0x1F;
+            n = 1;
+        } else if ((c & 0xF0) == 0xE0) {
+            cp = c & 0x0F;
+            n = 2;
+        } else if ((c & 0xF8) == 0xF0) {
+            cp = c & 0x07;
+            n = 3;
+        } else {
+            throw exception(malformed);
+        }
+        for (int i = 0; i < n; ++i) {
+            char b = next(malformed);
+            if ((b & 0xC0) != 0x80) {
+                throw exception(malformed);
+            }
+            cp = (cp << 6) | (b & 0x3F);
+        }
+        // Reject overlong encodings, surrogates and code points beyond U+10FFFF.
+        if (cp < MIN_CODE_POINT[n] || (cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE)
+                || cp > Character.MAX_CODE_POINT) {
+            throw exception(malformed);
+        }
+        return cp;
+    }
+
+    // Smallest code point that needs 1 + n bytes.
+    private static final int[] MIN_CODE_POINT = {0, 0x80, 0x800, 0x10000};
+
+    @Override
+    JSONParseException exception(String message) {
+        int at = Math.min(pos, limit);
+        countLines(Math.max(lineFrom, at));
+        // Index 0 of the window is at offset base, bytes before offset 0
+        // are not part of the input.
+        int start = (int)Math.max(Math.min(Math.max(0, -base), at), at - CONTEXT_RADIUS);
+        int end = Math.min(limit, at + CONTEXT_RADIUS);
+        // Do not start or end in the middle of a multi-byte sequence.
+        while (start > 0 && start < at && (input.get(start) & 0xC0) == 0x80) {
+            start++;
+        }
+        while (end < limit && (input.get(end) & 0xC0) == 0x80) {
+            end++;
+        }
+        var bytes = new byte[end - start];
+        input.get(start, bytes);
+        String context = new String(bytes, StandardCharsets.UTF_8);
+        return new JSONParseException(message, base + at, line, base + at - lineOffset + 1, context);
+    }
+}